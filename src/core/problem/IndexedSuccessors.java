@@ -0,0 +1,25 @@
+package core.problem;
+
+/**
+ *  ɰ±ֱɺ̵״̬
+ *  ϷѰǰ״̬Ԥȷ ()ɺʱ applicable
+ *
+ */
+public interface IndexedSuccessors {
+    /**
+     * @return ǰ״̬ºϷĸ
+     */
+    int successorCount();
+
+    /**
+     * @param i ±꣬0 <= i < successorCount()
+     * @return  i Ϸ
+     */
+    Action successorAction(int i);
+
+    /**
+     * @param i ±꣬0 <= i < successorCount()
+     * @return ִе i Ϸ״̬ next(successorAction(i)) ͬ
+     */
+    State successor(int i);
+}
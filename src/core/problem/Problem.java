@@ -1,5 +1,6 @@
 package core.problem;
 
+import core.solver.algorithm.heuristic.IncrementalPredictor;
 import core.solver.algorithm.heuristic.Predictor;
 import core.solver.queue.Node;
 import java.util.ArrayList;
@@ -49,8 +50,14 @@ public abstract class Problem {
     public final Node root(){
         return new Node(initialState, null, null, 0);
     }
+
+    public State getGoal() {
+        return goal;
+    }
     /**
      * nodeڵкϷĺ̽
+     * ״̬IndexedSuccessors±ֱɺ״̬ʡȥnextĵã
+     * ÿapplicableѹأapplicableͬЧ
      * @param parent      
      *
      * @return  parentӽ
@@ -59,6 +66,20 @@ public abstract class Problem {
         List<Node> nodes = new ArrayList<>();
         //״̬
         State parentState = parent.getState();
+        if (parentState instanceof IndexedSuccessors) {
+            IndexedSuccessors successors = (IndexedSuccessors) parentState;
+            int count = successors.successorCount();
+            for (int i = 0; i < count; i++) {
+                Action action = successors.successorAction(i);
+                if (!applicable(parentState, action)) {
+                    continue;
+                }
+                State state = successors.successor(i);
+                int pathCost = parent.getPathCost() + stepCost(state, action);
+                nodes.add(new Node(state, parent, action, pathCost));
+            }
+            return nodes;
+        }
         //parentStateпܵactionеaction
         for (var action : parentState.actions()){
             //״̬µĶǿе
@@ -78,6 +99,7 @@ public abstract class Problem {
 
     /**
      * nodeڵкϷĺ̽㣬ʹpredictorԤԵǰڵԤ
+     * predictorIncrementalPredictorɸڵ״ֵֵ̬
      * @param parent     ڵ
      * @param predictor  Ԥ
      * @return
@@ -86,7 +108,9 @@ public abstract class Problem {
         List<Node> nodes = new ArrayList<>();
         for (var node : childNodes(parent)) {
             //ʹpredictorstateֵ
-            int heuristics = predictor.heuristics(node.getState(), goal);
+            int heuristics = predictor instanceof IncrementalPredictor
+                    ? ((IncrementalPredictor) predictor).heuristics(node.getState(), goal, parent.getState(), parent.getHeuristic())
+                    : predictor.heuristics(node.getState(), goal);
             nodes.add(node.setHeuristic(heuristics));
         }
         return nodes;
@@ -43,17 +43,36 @@ public abstract class EngineFeeder {
      */
     public abstract Predictor getPredictor(HeuristicType type);
 
+    /**
+     * ֻIdAStarʹõPredictorIdAStarֻҪɲɣҪһ£
+     * ﷵظǿһµĬgetPredictorͬ
+     *
+     * @param type ͬĹֵ
+     * @return 
+     */
+    public Predictor getIdaPredictor(HeuristicType type) {
+        return getPredictor(type);
+    }
+
     /**
      * ԱʵIdAStar Iterative Deepening AStarAStar
      */
     public final AbstractSearcher getIdaStar(HeuristicType type) {
-        Predictor predictor = getPredictor(type);
+        Predictor predictor = getIdaPredictor(type);
         // ȡFrontierNodeg(n)+h(n)Уͬʱg(n)
         Frontier frontier = new StackFrontier();
         //IdAStar棨㷨ʵ
         return new IdAStar(frontier, predictor);
     }
 
+    /**
+     * ԾŻ IdAStar (ԭ޸״̬İ汾)
+     * Ĭ getIdaStar ͬⲻָ֧ʱҲӦ˻ getIdaStar
+     */
+    public AbstractSearcher getInPlaceIdaStar(HeuristicType type) {
+        return getIdaStar(type);
+    }
+
     /**
      * ԱʵAStar, ⶼһ
      * ʹòͬ
@@ -1,5 +1,6 @@
 package core.runner;
 
+import algs4.util.Stopwatch;
 import algs4.util.StopwatchCPU;
 import core.problem.Problem;
 import core.problem.ProblemType;
@@ -13,6 +14,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Scanner;
+import java.util.function.DoubleSupplier;
 
 import static core.solver.algorithm.heuristic.HeuristicType.*;
 
@@ -24,6 +26,9 @@ import static core.solver.algorithm.heuristic.HeuristicType.*;
  * arg3: СFeeder   stud.runner.WalkerFeeder
  */
 public final class SearchTester {
+    //  IDA* (-Dida.threads  1) Ĺ ForkJoin ߳ɣ̵߳ CPU ʱû壬ʱǽʱ
+    private static final boolean WALL_CLOCK = Integer.getInteger("ida.threads", 1) > 1;
+
     //ͬѧǿԸԼҪ޸ġ
     public static void main(String[] args) throws ClassNotFoundException,
             NoSuchMethodException, IllegalAccessException,
@@ -54,20 +59,22 @@ public final class SearchTester {
         for (HeuristicType heuristicType : heuristics) {
             AbstractSearcher searcher;
 
-            // ׶ 3: ʹ IDA*
+            // ׶ 3: ʹ IDA* (Ĭʹͨð汾 -Dida.inplace=true ṩԭذ汾)
             // ׶ 1 & 2: ʹ A*
             if (step == 3) {
                 System.out.println("--- Running IDA* Search ---");
-                searcher = feeder.getIdaStar(heuristicType);
+                searcher = Boolean.getBoolean("ida.inplace")
+                        ? feeder.getInPlaceIdaStar(heuristicType)
+                        : feeder.getIdaStar(heuristicType);
             } else {
                 System.out.println("--- Running A* Search ---");
                 searcher = feeder.getAStar(heuristicType);
             }
 
-            // PDBʱһ
+            // PDB ļʱں̨ǰʼʹپ룬һЩ
             System.out.println("Solving problems using heuristic: " + heuristicType);
             if (heuristicType == DISJOINT_PATTERN && step == 3) {
-                System.out.println("(һʱ PDB йĵȴ...)");
+                System.out.println("(е PDB ļֱӳ䣻ȱٵ PDB ں̨ǰʼʹپ)");
             }
 
             solveProblems(problems, searcher, heuristicType);
@@ -115,9 +122,9 @@ public final class SearchTester {
     private static void solveProblems(ArrayList<Problem> problems, AbstractSearcher searcher, HeuristicType heuristicType) {
         for (Problem problem : problems) {
             // ʹAStar
-            StopwatchCPU timer1 = new StopwatchCPU();
+            DoubleSupplier timer1 = startTimer();
             Deque<Node> path = searcher.search(problem);
-            double time1 = timer1.elapsedTime();
+            double time1 = timer1.getAsDouble();
 
             if (path == null) {
                 System.out.println("No Solution" + "ִ" + time1 + "s"+
@@ -135,6 +142,18 @@ public final class SearchTester {
         }
     }
 
+    /**
+     * ʼʱصĺӴ˿𾭹 ( WALL_CLOCK)
+     */
+    private static DoubleSupplier startTimer() {
+        if (WALL_CLOCK) {
+            Stopwatch wall = new Stopwatch();
+            return wall::elapsedTime;
+        }
+        StopwatchCPU cpu = new StopwatchCPU();
+        return cpu::elapsedTime;
+    }
+
     /**
      * ļʵַַ
      * @param scanner
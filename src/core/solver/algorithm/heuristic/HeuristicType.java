@@ -6,6 +6,7 @@ public enum HeuristicType {
     MANHATTAN,  // پ
     MANHATTAN_PLUS_LINEAR_CONFLICTS, // پ + Գͻ
     DISJOINT_PATTERN, // ģʽݿ
+    WALKING_DISTANCE, // Walking Distance (С)
 
     //PathFinding (8)
     PF_EUCLID,      // ŷþ
@@ -0,0 +1,21 @@
+package core.solver.algorithm.heuristic;
+
+import core.problem.State;
+
+/**
+ *  ֵԤ
+ *  ״̬ɸ״ִ̬һõֻһ¸״ֵ̬ӰĲ
+ *
+ */
+public interface IncrementalPredictor extends Predictor {
+    /**
+     * ݸ״ֵ̬Եǰ״̬ʽֵ
+     * @param
+     *      state   ״̬ ( parent ִһõ)
+     *      goal    Ŀ״̬
+     *      parent  ״̬
+     *      parentH ״ֵ̬
+     * @return ״̬Ŀ״ֵ̬
+     */
+    int heuristics(State state, State goal, State parent, int parentH);
+}
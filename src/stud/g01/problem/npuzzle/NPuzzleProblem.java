@@ -61,29 +61,14 @@ public class NPuzzleProblem extends Problem {
     /**
      * 
      * `state` ״̬£`action` ǷãǷƳ̱߽磩
+     *  PuzzleBoard ߷пհ׸ڸӵĺϷ룬ɺʱٰ֧
      * @param state  ǰ״̬
      * @param action ҪĶ
      * @return true ãfalse 
      */
     @Override
     public boolean applicable(State state, Action action) {
-        PuzzleBoard board = (PuzzleBoard) state;
-        PuzzleMove move = (PuzzleMove) action;
-        int row = board.getBlankRow();
-        int col = ((PuzzleBoard) state).getBlankCol(); // Ҫ PuzzleBoard  getBlankCol()
-        int n = board.getSize();
-
-        switch (move.getDirection()) {
-            case UP:
-                return row > 0; // ڶ
-            case DOWN:
-                return row < n - 1; // ڵ
-            case LEFT:
-                return col > 0; // 
-            case RIGHT:
-                return col < n - 1; // 
-        }
-        return false;
+        return ((PuzzleBoard) state).isApplicable(action);
     }
 
     /**
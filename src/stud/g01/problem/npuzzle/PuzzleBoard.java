@@ -1,34 +1,32 @@
 package stud.g01.problem.npuzzle;
 
 import core.problem.Action;
+import core.problem.IndexedSuccessors;
 import core.problem.State;
 import core.solver.algorithm.heuristic.HeuristicType;
 import core.solver.algorithm.heuristic.Predictor;
-import stud.g01.solver.PatternDatabase; //  PDB 
+import stud.g01.solver.HeuristicContext;
+import stud.g01.solver.PuzzlePredictors;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * N-Puzzle ġ״̬ࡣ
  * (޸Ϊ֧ PDB  Long )
  */
-public class PuzzleBoard extends State {
+public class PuzzleBoard extends State implements IndexedSuccessors {
 
     private final int size;
-    private final int[][] board;
+    private final int[][] board;  // ģʽΪ null
+    private final long packed;    // ģʽ (߳ 4) µ̣ÿ 4 λȣһλ
     private final int blankRow; // հ׸ '0' к
     private final int blankCol; // հ׸ '0' к
+    private final MoveTable moveTable; // ߳߷
+    private final long zobrist;        // Zobrist ϣ (Ƭ, ) ƶʱ
 
-    // --- ֶ ---
-    private static Map<Integer, int[]> goalPositionsCache; // پ
-    private static PuzzleBoard cachedGoal;
-
-    // --- PDB ֶ ---
-    private static PatternDatabase pdb1;
-    private static PatternDatabase pdb2;
-    private static PatternDatabase pdb3;
-    private static boolean pdbsBuilt = false;
-    private static PuzzleBoard pdbGoal = null;
+    // ߳߷
+    private static final Map<Integer, MoveTable> MOVE_TABLES = new ConcurrentHashMap<>();
 
 
     /**
@@ -38,11 +36,73 @@ public class PuzzleBoard extends State {
      */
     public PuzzleBoard(int size, int[][] board) {
         this.size = size;
-        this.board = board;
+        this.moveTable = MOVE_TABLES.computeIfAbsent(size, MoveTable::new);
 
         int[] blankPos = findBlank(board, size);
         this.blankRow = blankPos[0];
         this.blankCol = blankPos[1];
+
+        // ߳ 4 Ƭ 0..15 ʱʹýģʽ̷һ long 
+        if (fitsInLong(board, size)) {
+            this.board = null;
+            this.packed = pack(board, size);
+        } else {
+            this.board = board;
+            this.packed = 0L;
+        }
+
+        long hash = 0L;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                hash ^= moveTable.zobrist(board[i][j], i * size + j);
+            }
+        }
+        this.zobrist = hash;
+    }
+
+    /**
+     *  next() ʹõĹ캯 (ģʽ board Ϊ null)հ׸ Zobrist ϣɸõ
+     */
+    private PuzzleBoard(int size, MoveTable moveTable, int[][] board, long packed, int blankRow, int blankCol,
+                        long zobrist) {
+        this.size = size;
+        this.moveTable = moveTable;
+        this.board = board;
+        this.packed = packed;
+        this.blankRow = blankRow;
+        this.blankCol = blankCol;
+        this.zobrist = zobrist;
+    }
+
+    private static boolean fitsInLong(int[][] board, int size) {
+        if (size > 4) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (board[i][j] < 0 || board[i][j] > 0xF) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static long pack(int[][] board, int size) {
+        long key = 0L;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                key = (key << 4) | board[i][j];
+            }
+        }
+        return key;
+    }
+
+    /**
+     *  cell ڽձеλ
+     */
+    private int shift(int cell) {
+        return (size * size - 1 - cell) << 2;
     }
 
     private int[] findBlank(int[][] board, int size) {
@@ -63,7 +123,8 @@ public class PuzzleBoard extends State {
         for (int i = 0; i < size; i++) {
             for (int j = 0; j < size; j++) {
                 //  "" Ƭ (-1  15) ʹ '*'
-                String s = (board[i][j] == -1 || board[i][j] == 0xF) ? "15" : String.valueOf(board[i][j]);
+                int tile = getTile(i, j);
+                String s = (tile == -1 || tile == 0xF) ? "15" : String.valueOf(tile);
                 System.out.printf("%-" + maxDigits + "s", s);
             }
             System.out.println();
@@ -74,13 +135,25 @@ public class PuzzleBoard extends State {
     @Override
     public State next(Action action) {
         PuzzleMove move = (PuzzleMove) action;
-        int newRow = blankRow, newCol = blankCol;
+        return slide(blankRow + move.getRowOffset(), blankCol + move.getColOffset());
+    }
 
-        switch (move.getDirection()) {
-            case UP:    newRow--; break;
-            case DOWN:  newRow++; break;
-            case LEFT:  newCol--; break;
-            case RIGHT: newCol++; break;
+    /**
+     *  (newRow, newCol) ϵƬհ׸
+     */
+    private PuzzleBoard slide(int newRow, int newCol) {
+        int blank = blankRow * size + blankCol;
+        int target = newRow * size + newCol;
+        int tile = getTile(newRow, newCol);
+        // Ƭհ׸񽻻˸ӣԭµ
+        long newZobrist = zobrist
+                ^ moveTable.zobrist(tile, target) ^ moveTable.zobrist(tile, blank)
+                ^ moveTable.zobrist(0, blank) ^ moveTable.zobrist(0, target);
+
+        if (board == null) {
+            // ģʽհ׸ 4 λΪ 0ĿƬŵԭհ׸񼴿ɣ
+            long newPacked = (packed & ~(0xFL << shift(target))) | ((long) tile << shift(blank));
+            return new PuzzleBoard(size, moveTable, null, newPacked, newRow, newCol, newZobrist);
         }
 
         int[][] newBoard = new int[size][];
@@ -88,38 +161,99 @@ public class PuzzleBoard extends State {
             newBoard[i] = Arrays.copyOf(board[i], size);
         }
 
-        newBoard[blankRow][blankCol] = newBoard[newRow][newCol];
+        newBoard[blankRow][blankCol] = tile;
         newBoard[newRow][newCol] = 0;
 
-        return new PuzzleBoard(size, newBoard);
+        return new PuzzleBoard(size, moveTable, newBoard, 0L, newRow, newCol, newZobrist);
     }
 
+    /**
+     * ǰ״̬µĺϷ (߷ֻƳ̵Ķ)
+     */
     @Override
     public Iterable<? extends Action> actions() {
-        List<Action> moves = new ArrayList<>();
-        moves.add(new PuzzleMove(PuzzleMove.Direction.UP));
-        moves.add(new PuzzleMove(PuzzleMove.Direction.DOWN));
-        moves.add(new PuzzleMove(PuzzleMove.Direction.LEFT));
-        moves.add(new PuzzleMove(PuzzleMove.Direction.RIGHT));
-        return moves;
+        if (blankRow < 0) {
+            return List.of();
+        }
+        return moveTable.actions.get(blankRow * size + blankCol);
+    }
+
+    @Override
+    public int successorCount() {
+        return blankRow < 0 ? 0 : moveTable.targets[blankRow * size + blankCol].length;
+    }
+
+    @Override
+    public Action successorAction(int i) {
+        return moveTable.moves[blankRow * size + blankCol][i];
+    }
+
+    @Override
+    public State successor(int i) {
+        int target = moveTable.targets[blankRow * size + blankCol][i];
+        return slide(target / size, target % size);
     }
 
     /**
-     * ڵǰ״̬£Ƿ
+     * ĳһ߳߷հ׸ڸʱĸӼӦĶ UP, DOWN, LEFT, RIGHT ˳
+     * ϺϷλ룻Լñ߳ Zobrist  (̶ӣеĹϣֵͬ)
+     */
+    private static final class MoveTable {
+        final int[][] targets;              // targets[blank]հ׸񽻻ĸ
+        final PuzzleMove[][] moves;         // moves[blank][i] targets[blank][i] Ķ
+        final List<List<PuzzleMove>> actions;
+        final int[] legal;                  // legal[blank] d λΪ 1 ʾ Direction Ϊ d ĶϷ
+        final long[] zobristKeys;           // zobristKeys[tile * cellCount + cell]
+
+        /**
+         * Ƭ tile ڸ cell ϵ 0..cellCount-1 Ƭ (硰ġƬ) Ϊ 0
+         */
+        long zobrist(int tile, int cell) {
+            int cellCount = targets.length;
+            return tile >= 0 && tile < cellCount ? zobristKeys[tile * cellCount + cell] : 0L;
+        }
+
+        MoveTable(int size) {
+            int cellCount = size * size;
+            SplittableRandom random = new SplittableRandom(0x5A0B815EL + size);
+            zobristKeys = new long[cellCount * cellCount];
+            for (int i = 0; i < zobristKeys.length; i++) {
+                zobristKeys[i] = random.nextLong();
+            }
+
+            targets = new int[cellCount][];
+            moves = new PuzzleMove[cellCount][];
+            List<List<PuzzleMove>> lists = new ArrayList<>(cellCount);
+            legal = new int[cellCount];
+            for (int cell = 0; cell < cellCount; cell++) {
+                int row = cell / size, col = cell % size;
+                int[] cellTargets = new int[PuzzleMove.ALL.size()];
+                PuzzleMove[] cellMoves = new PuzzleMove[PuzzleMove.ALL.size()];
+                int n = 0;
+                for (PuzzleMove move : PuzzleMove.ALL) {
+                    int newRow = row + move.getRowOffset(), newCol = col + move.getColOffset();
+                    if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size) {
+                        cellTargets[n] = newRow * size + newCol;
+                        cellMoves[n] = move;
+                        legal[cell] |= 1 << move.getDirection().ordinal();
+                        n++;
+                    }
+                }
+                targets[cell] = Arrays.copyOf(cellTargets, n);
+                moves[cell] = Arrays.copyOf(cellMoves, n);
+                lists.add(List.of(moves[cell]));
+            }
+            actions = lists;
+        }
+    }
+
+    /**
+     * ڵǰ״̬£Ƿ (߷пհ׸ڸӵĺϷ룬֧)
      */
     public boolean isApplicable(Action action) {
         PuzzleMove move = (PuzzleMove) action;
-        switch (move.getDirection()) {
-            case UP:
-                return blankRow > 0;
-            case DOWN:
-                return blankRow < size - 1;
-            case LEFT:
-                return blankCol > 0;
-            case RIGHT:
-                return blankCol < size - 1;
-        }
-        return false;
+        return blankRow >= 0
+                && (moveTable.legal[blankRow * size + blankCol] >>> move.getDirection().ordinal() & 1) != 0;
     }
 
 
@@ -128,25 +262,42 @@ public class PuzzleBoard extends State {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         PuzzleBoard that = (PuzzleBoard) obj;
-        // PDB build  Arrays.deepEquals (Long)
-        // IdAStar  goal() Ҳ
-        return this.size == that.size && Arrays.deepEquals(this.board, that.board);
+        // IdAStar  goal() 
+        // ǷΪģʽֻȡڱ߳ݣȵģʽͬ
+        if (this.size != that.size || this.zobrist != that.zobrist) return false;
+        if (this.board == null || that.board == null) {
+            return this.board == that.board && this.packed == that.packed;
+        }
+        return Arrays.deepEquals(this.board, that.board);
     }
 
     @Override
     public int hashCode() {
-        // PDB build  Arrays.deepHashCode (Long)
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(zobrist);
+    }
+
+    /**
+     * 64 λ Zobrist ϣO(1)ֱռûļ
+     * ̵ͬĹϣֵͬ (ʼ)ҪȷʱӦȽ equals
+     */
+    public long zobristKey() {
+        return zobrist;
     }
 
     // --- PDB  IdAStar Ż ---
 
     /**
-     *  ** ״̬Ϊ long
-     *  IdAStar  O(1) ѭ (pathSet)
+     *  ** ״̬Ϊ long (ÿ 4 λ)ֻڲ 16 ӵ̣ģʽֱӷ̱
+     * ʹ key()
      * @return 64λ long 
      */
     public long toLong() {
+        if (board == null) {
+            return packed;
+        }
+        if (size * size > 16) {
+            throw new UnsupportedOperationException(size + "x" + size + " ޷Ϊһ longʹ key()");
+        }
         long key = 0L;
         // 4x4 
         for (int i = 0; i < size; i++) {
@@ -154,19 +305,77 @@ public class PuzzleBoard extends State {
                 // 4λ
                 key <<= 4;
                 // 㣬ӵǰƬ
-                key |= (long) this.board[i][j];
+                key |= (long) getTile(i, j);
             }
         }
         return key;
     }
 
     /**
-     * ΪPDB "" һ̲Ϊ long
-     *  PDB  O(1) hֵѯ
+     * ̵ľȷ룬 IdAStar  O(1) ѭ (pathSet) Ҫȷصĳ
+     * ģʽ¼ toLong()ÿ 5 λȣ long ɵ 128 λ ( 25 )
+     */
+    public Key key() {
+        if (board == null) {
+            return new Key(0L, packed);
+        }
+        if (size * size * 5 > 128) {
+            throw new UnsupportedOperationException(size + "x" + size + " ޷Ϊ long");
+        }
+        long high = 0L, low = 0L;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                high = (high << 5) | (low >>> 59);
+                low = (low << 5) | (board[i][j] & 0x1F);
+            }
+        }
+        return new Key(high, low);
+    }
+
+    /**
+     *  long ɵ̱룬 key()
+     */
+    public static final class Key {
+        private final long high;
+        private final long low;
+
+        public Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        public long getHigh() {
+            return high;
+        }
+
+        public long getLow() {
+            return low;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key that = (Key) obj;
+            return high == that.high && low == that.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(low * 0x9E3779B97F4A7C15L + high);
+        }
+    }
+
+    /**
+     * ΪPDB "" һ̲Ϊ long (ÿ 4 λֻڲ 16 ӵ)
+     *  MAP 洢 PDB  O(1) hֵѯ
      * @param pattern PDB ĵƬ
      * @return 64λ long 
      */
     public long toAbstractLong(Set<Integer> pattern) {
+        if (size * size > 16) {
+            throw new UnsupportedOperationException(size + "x" + size + " ޷Ϊһ long");
+        }
         long key = 0L;
         // 4x4 
         for (int i = 0; i < size; i++) {
@@ -175,7 +384,7 @@ public class PuzzleBoard extends State {
                 // 4λ
                 key <<= 4;
 
-                int tile = this.board[i][j];
+                int tile = getTile(i, j);
                 long tileValue;
 
                 if (tile == 0) {
@@ -194,60 +403,14 @@ public class PuzzleBoard extends State {
     }
 
     // --- ʽ (Heuristics) ---
-
-    private void ensureCache(PuzzleBoard goal) {
-        if (goalPositionsCache == null || !goal.equals(cachedGoal)) {
-            goalPositionsCache = new HashMap<>();
-            cachedGoal = goal;
-            int goalSize = goal.getSize();
-            for (int i = 0; i < goalSize; i++) {
-                for (int j = 0; j < goalSize; j++) {
-                    goalPositionsCache.put(goal.board[i][j], new int[]{i, j});
-                }
-            }
-        }
-    }
-
-    /**
-     * ȷ PDB Ѿ
-     */
-    private static synchronized void ensurePDBs(PuzzleBoard goal) {
-        if (pdbsBuilt && goal.equals(pdbGoal)) {
-            return;
-        }
-
-        if (goal.getSize() != 4) {
-            // System.err.println("PDBs Ϊ 4x4  puzzle 塣"); // 3x3ʱְ
-            pdbsBuilt = true;
-            pdbGoal = goal;
-            return;
-        }
-
-        System.out.println("ڹ 5-5-5 ģʽݿ (Long )... Ҫ 15-30 ...");
-
-        long startTime = System.currentTimeMillis();
-        pdbGoal = goal;
-
-        Set<Integer> p1_tiles = Set.of(1, 2, 3, 4, 5);
-        pdb1 = new PatternDatabase(p1_tiles, goal);
-
-        Set<Integer> p2_tiles = Set.of(6, 7, 8, 9, 10);
-        pdb2 = new PatternDatabase(p2_tiles, goal);
-
-        Set<Integer> p3_tiles = Set.of(11, 12, 13, 14, 15);
-        pdb3 = new PatternDatabase(p3_tiles, goal);
-
-        pdbsBuilt = true;
-        long duration = (System.currentTimeMillis() - startTime) / 1000;
-        System.out.println("ģʽݿ⹹ (ʱ " + duration + " )");
-    }
-
+    // ʽʵԤ stud.g01.solver  ( HeuristicContextPuzzlePredictorsPdbRegistry)ֻǱ
 
     public int misplaced(PuzzleBoard goal) {
         int count = 0;
         for (int i = 0; i < size; i++) {
             for (int j = 0; j < size; j++) {
-                if (this.board[i][j] != 0 && this.board[i][j] != goal.board[i][j]) {
+                int tile = getTile(i, j);
+                if (tile != 0 && tile != goal.getTile(i, j)) {
                     count++;
                 }
             }
@@ -256,76 +419,31 @@ public class PuzzleBoard extends State {
     }
 
     public int manhattan(PuzzleBoard goal) {
-        ensureCache(goal);
-
-        int distance = 0;
-        for (int i = 0; i < this.size; i++) {
-            for (int j = 0; j < this.size; j++) {
-                int tile = this.board[i][j];
-                if (tile != 0) {
-                    if (goalPositionsCache.containsKey(tile)) {
-                        int[] targetPos = goalPositionsCache.get(tile);
-                        distance += Math.abs(i - targetPos[0]) + Math.abs(j - targetPos[1]);
-                    }
-                }
-            }
-        }
-        return distance;
+        return HeuristicContext.of(goal).manhattan(this);
     }
 
+    /**
+     * Գͻͬһ () ĿҲһ () Ƭ˳Ŀ෴
+     * һҪƳƻأپ֮ 2 
+     * @return иеĳͻ֮͵ 2 
+     */
     public int linearConflicts(PuzzleBoard goal) {
-        ensureCache(goal);
-        int conflicts = 0;
-        // (ʡ... ԭе linearConflicts )
-        return conflicts * 2;
+        return HeuristicContext.of(goal).linearConflicts(this);
     }
 
     /**
-     * ̬ͷضӦʽ (Predictor)
-     *
+     * Walking DistanceСҪƶ֮ ( WalkingDistanceTable)
+     * ߳ WalkingDistanceTable.MAX_SIZE ʱپ
      */
-    public static Predictor predictor(HeuristicType type) {
-        switch (type) {
-            case MISPLACED:
-                return (state, goal) -> ((PuzzleBoard) state).misplaced((PuzzleBoard) goal);
-            case MANHATTAN:
-                return (state, goal) -> ((PuzzleBoard) state).manhattan((PuzzleBoard) goal);
-            case MANHATTAN_PLUS_LINEAR_CONFLICTS:
-                return (state, goal) -> {
-                    PuzzleBoard b = (PuzzleBoard) state;
-                    PuzzleBoard g = (PuzzleBoard) goal;
-                    return b.manhattan(g) + b.linearConflicts(g);
-                };
-
-            case DISJOINT_PATTERN:
-                return (state, goal) -> {
-                    PuzzleBoard goalBoard = (PuzzleBoard) goal;
-                    ensurePDBs(goalBoard);
-
-                    PuzzleBoard b = (PuzzleBoard) state;
-
-                    if (b.getSize() != 4 || !pdbsBuilt || pdb1 == null) {
-                        return b.manhattan(goalBoard);
-                    }
-
-                    // PDB_1 (1-5)
-                    long key1 = b.toAbstractLong(pdb1.getPattern());
-                    int h1 = pdb1.getHeuristic(key1);
-
-                    // PDB_2 (6-10)
-                    long key2 = b.toAbstractLong(pdb2.getPattern());
-                    int h2 = pdb2.getHeuristic(key2);
-
-                    // PDB_3 (11-15)
-                    long key3 = b.toAbstractLong(pdb3.getPattern());
-                    int h3 = pdb3.getHeuristic(key3);
-
-                    return h1 + h2 + h3;
-                };
+    public int walkingDistance(PuzzleBoard goal) {
+        return HeuristicContext.of(goal).walkingDistance(this);
+    }
 
-            default:
-                return (state, goal) -> 0;
-        }
+    /**
+     * ̬ͷضӦʽ (Predictor) PuzzlePredictors.predictor
+     */
+    public static Predictor predictor(HeuristicType type) {
+        return PuzzlePredictors.predictor(type);
     }
 
     // --- ɽ (Solvability) ---
@@ -336,7 +454,7 @@ public class PuzzleBoard extends State {
         int k = 0;
         for (int i = 0; i < size; i++) {
             for (int j = 0; j < size; j++) {
-                flatBoard[k++] = board[i][j];
+                flatBoard[k++] = getTile(i, j);
             }
         }
 
@@ -363,7 +481,29 @@ public class PuzzleBoard extends State {
         return blankCol;
     }
 
+    /**
+     *  row е col еƬ0 Ϊհ׸
+     */
+    public int getTile(int row, int col) {
+        if (board == null) {
+            return (int) (packed >>> shift(row * size + col)) & 0xF;
+        }
+        return board[row][col];
+    }
+
+    /**
+     * άʽ̣ģʽÿη½飬ȡ getTile
+     */
     public int[][] getBoard() {
+        if (board == null) {
+            int[][] cells = new int[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    cells[i][j] = getTile(i, j);
+                }
+            }
+            return cells;
+        }
         return board;
     }
 }
\ No newline at end of file
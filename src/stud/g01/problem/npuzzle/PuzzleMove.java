@@ -2,9 +2,12 @@ package stud.g01.problem.npuzzle;
 
 import core.problem.Action;
 
+import java.util.List;
+
 /**
  * N-Puzzle ġࡣ
  * հ׸0ƶķ
+ * ÿֻһɱʵ (UP, DOWN, LEFT, RIGHT)ͨ of(direction) ȡãɺʱٷ䶯
  */
 public class PuzzleMove extends Action {
 
@@ -12,22 +15,55 @@ public class PuzzleMove extends Action {
      * ö࣬ĸܵƶ
      */
     public enum Direction {
-        UP,
-        DOWN,
-        LEFT,
-        RIGHT
+        UP(-1, 0),
+        DOWN(1, 0),
+        LEFT(0, -1),
+        RIGHT(0, 1);
+
+        private final int rowOffset;    // հ׸кŵ
+        private final int colOffset;    // հ׸кŵ
+
+        Direction(int rowOffset, int colOffset) {
+            this.rowOffset = rowOffset;
+            this.colOffset = colOffset;
+        }
+
+        public int rowOffset() {
+            return rowOffset;
+        }
+
+        public int colOffset() {
+            return colOffset;
+        }
     }
 
+    public static final PuzzleMove UP = new PuzzleMove(Direction.UP);
+    public static final PuzzleMove DOWN = new PuzzleMove(Direction.DOWN);
+    public static final PuzzleMove LEFT = new PuzzleMove(Direction.LEFT);
+    public static final PuzzleMove RIGHT = new PuzzleMove(Direction.RIGHT);
+
+    //  Direction ˳еȫ (ɱ)
+    public static final List<PuzzleMove> ALL = List.of(UP, DOWN, LEFT, RIGHT);
+
     private final Direction direction;
 
     /**
-     * 캯
+     * 캯ֻڴĸʵ
      * @param direction ƶ (UP, DOWN, LEFT, RIGHT)
      */
-    public PuzzleMove(Direction direction) {
+    private PuzzleMove(Direction direction) {
         this.direction = direction;
     }
 
+    /**
+     * ȡĳһĶ
+     * @param direction ƶ
+     * @return ÷Ψһ PuzzleMove ʵ
+     */
+    public static PuzzleMove of(Direction direction) {
+        return ALL.get(direction.ordinal());
+    }
+
     /**
      * ȡƶ
      * @return ƶ
@@ -36,6 +72,14 @@ public class PuzzleMove extends Action {
         return direction;
     }
 
+    public int getRowOffset() {
+        return direction.rowOffset;
+    }
+
+    public int getColOffset() {
+        return direction.colOffset;
+    }
+
     /**
      * ڿ̨ӡƶã
      */
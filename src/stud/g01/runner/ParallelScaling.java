@@ -0,0 +1,66 @@
+package stud.g01.runner;
+
+import algs4.util.Stopwatch;
+import core.problem.Problem;
+import core.runner.SearchTester;
+import core.solver.algorithm.heuristic.HeuristicType;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.InPlaceIdAStar;
+import stud.g01.solver.PdbRegistry;
+import stud.queue.StackFrontier;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Ƚϲ IDA* (InPlaceIdAStar) ڲͬ߳µʱ䡣
+ * ÷java stud.g01.runner.ParallelScaling [ļ] [ʽ] [߳]
+ * ĬļΪ resources/problems3.txtʽΪ DISJOINT_PATTERN߳Ϊô
+ * ߳ȡ 1, 2, 4, ...¼ʱ (ǽʱ)ٱչĽⳤǷ뵥߳һ¡
+ * ʱǳ֮һεҵǰλòͬչв졣
+ */
+public final class ParallelScaling {
+
+    public static void main(String[] args) throws FileNotFoundException {
+        String file = args.length > 0 ? args[0] : "resources/problems3.txt";
+        HeuristicType type = args.length > 1 ? HeuristicType.valueOf(args[1]) : HeuristicType.DISJOINT_PATTERN;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        ArrayList<Problem> problems = new PuzzleFeeder().getProblems(SearchTester.getProblemLines(new Scanner(new File(file))));
+        if (type == HeuristicType.DISJOINT_PATTERN) {
+            // ȴ PDB  PDB ļ/ųڼʱ֮
+            for (Problem problem : problems) {
+                PdbRegistry.awaitPDBs((PuzzleBoard) problem.getGoal());
+            }
+        }
+
+        double baseTime = 0;
+        List<Integer> baseLengths = null;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            InPlaceIdAStar searcher = new InPlaceIdAStar(new StackFrontier(), type, threads);
+            List<Integer> lengths = new ArrayList<>();
+            long expanded = 0;
+            Stopwatch timer = new Stopwatch();
+            for (Problem problem : problems) {
+                Deque<Node> path = searcher.search(problem);
+                lengths.add(path == null ? -1 : path.size());
+                expanded += searcher.nodesExpanded();
+            }
+            double time = timer.elapsedTime();
+            if (threads == 1) {
+                baseTime = time;
+                baseLengths = lengths;
+            }
+            System.out.printf("%2d ̣߳ %.2fsٱ %.2fչ %d  %s%n", threads, time, baseTime / time,
+                    expanded, lengths.equals(baseLengths) ? "(ⳤ뵥߳һ)" : "(ⳤ뵥̲߳һ!)");
+            if (threads >= maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package stud.g01.runner;
+
+import algs4.util.StopwatchCPU;
+import core.problem.Problem;
+import core.runner.SearchTester;
+import core.solver.algorithm.heuristic.HeuristicType;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.PdbPartition;
+import stud.g01.solver.PdbRegistry;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ *  IDA* ȽϲཻͬģʽֵЧⲢгֵĽⳤչ
+ * ÷java stud.g01.runner.PartitionComparison [ļ] [ ...]
+ * ĬļΪ resources/problems3.txtĬϱȽ 5-5-5  6-6-3 (7-8 Ҫ -Xmx3g ϵĶ)
+ * ֵıֻ߳ͬͳƸñ߳ ( resources/problems24.txt  6-6-6-6)
+ *  -Dpdb.symmetry=false رշżѯԱȣ-Dpdb.stats=true ʱͳֵԴ
+ */
+public final class PartitionComparison {
+
+    public static void main(String[] args) throws FileNotFoundException {
+        String file = args.length > 0 ? args[0] : "resources/problems3.txt";
+        List<PdbPartition> partitions = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            partitions.add(PdbPartition.of(args[i]));
+        }
+        if (partitions.isEmpty()) {
+            partitions.add(PdbPartition.P555);
+            partitions.add(PdbPartition.P663);
+        }
+        int size = partitions.get(0).getBoardSize();
+        for (PdbPartition partition : partitions) {
+            if (partition.getBoardSize() != size) {
+                throw new IllegalArgumentException("ֵı߳ͬ: " + partitions.get(0) + "  " + partition);
+            }
+        }
+
+        ArrayList<Problem> problems = new ArrayList<>();
+        for (Problem problem : new PuzzleFeeder().getProblems(SearchTester.getProblemLines(new Scanner(new File(file))))) {
+            if (((PuzzleBoard) problem.root().getState()).getSize() == size) {
+                problems.add(problem);
+            }
+        }
+
+        // results[p][i] p ֽ i  {ⳤ, չ}
+        long[][][] results = new long[partitions.size()][problems.size()][];
+        double[] times = new double[partitions.size()];
+        long[][] wins = new long[partitions.size()][];
+        for (int p = 0; p < partitions.size(); p++) {
+            PdbRegistry.setPartition(partitions.get(p));
+            AbstractSearcher searcher = new PuzzleFeeder().getIdaStar(HeuristicType.DISJOINT_PATTERN);
+            // һθֵ PDBȴ̨ɣ PDB ļ/ųڼʱ֮
+            problems.get(0).root(PuzzleBoard.predictor(HeuristicType.DISJOINT_PATTERN));
+            PdbRegistry.awaitPDBs();
+            PdbRegistry.resetPdbSourceWins();
+            for (int i = 0; i < problems.size(); i++) {
+                StopwatchCPU timer = new StopwatchCPU();
+                Deque<Node> path = searcher.search(problems.get(i));
+                times[p] += timer.elapsedTime();
+                results[p][i] = new long[]{path == null ? -1 : path.size(), searcher.nodesExpanded()};
+            }
+            wins[p] = PdbRegistry.pdbSourceWins();
+        }
+
+        StringBuilder header = new StringBuilder(String.format("%-4s", "#"));
+        for (PdbPartition partition : partitions) {
+            header.append(String.format("%22s", partition + " ⳤ/չ"));
+        }
+        System.out.println(header);
+        long[] totals = new long[partitions.size()];
+        for (int i = 0; i < problems.size(); i++) {
+            StringBuilder line = new StringBuilder(String.format("%-4d", i + 1));
+            for (int p = 0; p < partitions.size(); p++) {
+                line.append(String.format("%8d /%12d", results[p][i][0], results[p][i][1]));
+                totals[p] += results[p][i][1];
+            }
+            System.out.println(line);
+        }
+        StringBuilder total = new StringBuilder(String.format("%-4s", "ϼ"));
+        for (int p = 0; p < partitions.size(); p++) {
+            total.append(String.format("%9s%12d", "", totals[p]));
+        }
+        System.out.println(total);
+        for (int p = 0; p < partitions.size(); p++) {
+            System.out.printf("%s %.2fsչΪ %s  %.2f %n", partitions.get(p), times[p],
+                    partitions.get(0), (double) totals[p] / Math.max(totals[0], 1));
+            long lookups = wins[p][0] + wins[p][1] + wins[p][2];
+            if (lookups == 0) {
+                continue;   // δ -Dpdb.stats
+            }
+            System.out.printf("    ֵԴԭ״̬ %.1f%%״̬ %.1f%%ż״̬ %.1f%%%n",
+                    100.0 * wins[p][0] / lookups, 100.0 * wins[p][1] / lookups, 100.0 * wins[p][2] / lookups);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package stud.g01.runner;
+
+import algs4.util.StdRandom;
+import algs4.util.Stopwatch;
+import core.problem.Action;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.PatternDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ƚ PDB ͬ洢ʽĶڴռѯٶȡ
+ * ÷java stud.g01.runner.PdbBenchmark [MAP|RANKED ...]
+ *      java stud.g01.runner.PdbBenchmark build [߳]
+ *      java stud.g01.runner.PdbBenchmark encoding
+ * Ĭβ MAP  RANKEDģʽΪ {1..5}ĿΪ׼ 15-Puzzle Ŀ״̬
+ * build Ƚ RANKED 洢ڲͬ߳µĹʱ䣬ιõıǷһ£
+ * encoding ȽϾֱĴСѯٶȡ
+ */
+public final class PdbBenchmark {
+
+    private static final int BOARDS = 100_000;     // ̸
+    private static final int ROUNDS = 20;          // ÿ̲ѯ
+    private static final int WALK_LENGTH = 200;    // ߲
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("build")) {
+            int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : PatternDatabase.DEFAULT_THREADS;
+            buildScaling(maxThreads);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("encoding")) {
+            encodings();
+            return;
+        }
+
+        List<PatternDatabase.Storage> storages = new ArrayList<>();
+        for (String arg : args) {
+            storages.add(PatternDatabase.Storage.valueOf(arg));
+        }
+        if (storages.isEmpty()) {
+            storages.add(PatternDatabase.Storage.MAP);
+            storages.add(PatternDatabase.Storage.RANKED);
+        }
+
+        PuzzleBoard goal = standardGoal(4);
+        PuzzleBoard[] boards = randomBoards(goal, BOARDS);
+        Set<Integer> pattern = Set.of(1, 2, 3, 4, 5);
+
+        for (PatternDatabase.Storage storage : storages) {
+            long before = usedHeap();
+            Stopwatch buildTimer = new Stopwatch();
+            PatternDatabase pdb = new PatternDatabase(pattern, goal, storage);
+            double buildTime = buildTimer.elapsedTime();
+            long heap = usedHeap() - before;
+
+            // ԤȣȻʱ
+            long checksum = lookups(pdb, boards, 2);
+            Stopwatch timer = new Stopwatch();
+            checksum += lookups(pdb, boards, ROUNDS);
+            double time = timer.elapsedTime();
+
+            System.out.printf("%-7s  %.2fsռ %.1f MBѯ %.2f M / (checksum %d)%n",
+                    storage, buildTime, heap / 1024.0 / 1024.0,
+                    (double) BOARDS * ROUNDS / time / 1e6, checksum);
+
+            // ͷŵǰ PDBӰһִ洢ʽڴͳ
+            pdb = null;
+            usedHeap();
+        }
+    }
+
+    /**
+     * ߳ȡ 1, 2, 4, ...¼ʱУ
+     */
+    private static void buildScaling(int maxThreads) {
+        PuzzleBoard goal = standardGoal(4);
+        Set<Integer> pattern = Set.of(1, 2, 3, 4, 5);
+        double baseTime = 0;
+        long baseChecksum = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Stopwatch timer = new Stopwatch();
+            PatternDatabase pdb = new PatternDatabase(pattern, goal, PatternDatabase.Storage.RANKED, threads);
+            double time = timer.elapsedTime();
+            long checksum = pdb.checksum();
+            if (threads == 1) {
+                baseTime = time;
+                baseChecksum = checksum;
+            }
+            System.out.printf("%2d ̣߳ %.2fsٱ %.2fУ %08x %s%n", threads, time, baseTime / time,
+                    checksum, checksum == baseChecksum ? "(뵥߳һ)" : "(뵥̲߳һ!)");
+            if (threads >= maxThreads) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Ƚ RANKED 洢 (ADDITIVE ) ڸֱµıСѯٶȡ
+     * ѯһ߽УĽ BYTE Ƚ
+     */
+    private static void encodings() {
+        PuzzleBoard goal = standardGoal(4);
+        PuzzleBoard[] walk = randomWalk(randomBoards(goal, 1)[0], BOARDS);
+        Set<Integer> pattern = Set.of(1, 2, 3, 4, 5);
+        int[] expected = null;
+        for (PatternDatabase.Encoding encoding : PatternDatabase.Encoding.values()) {
+            PatternDatabase pdb = new PatternDatabase(pattern, goal, PatternDatabase.Storage.RANKED,
+                    PatternDatabase.Cost.ADDITIVE, encoding, 1);
+            int[] h = new int[walk.length];
+            walkLookups(pdb, walk, h); // Ԥ
+            Stopwatch timer = new Stopwatch();
+            for (int r = 0; r < ROUNDS; r++) {
+                walkLookups(pdb, walk, h);
+            }
+            double time = timer.elapsedTime();
+
+            if (expected == null) {
+                expected = h.clone();
+            }
+            int mismatches = 0;
+            for (int i = 0; i < h.length; i++) {
+                if (h[i] != expected[i]) {
+                    mismatches++;
+                }
+            }
+            System.out.printf("%-6s  %.2f MBѯ %.2f M /룬 BYTE ֵͬ %d %n",
+                    encoding, pdb.getTableBytes() / 1024.0 / 1024.0, (double) walk.length * ROUNDS / time / 1e6,
+                    mismatches);
+        }
+    }
+
+    /**
+     * βѯ
+     */
+    private static void walkLookups(PatternDatabase pdb, PuzzleBoard[] walk, int[] h) {
+        for (int i = 0; i < walk.length; i++) {
+            h[i] = pdb.getHeuristic(walk[i]);
+        }
+    }
+
+    private static long lookups(PatternDatabase pdb, PuzzleBoard[] boards, int rounds) {
+        long sum = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (PuzzleBoard board : boards) {
+                sum += pdb.getHeuristic(board);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     *  GC ͳƵǰöڴ
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * ׼Ŀ״̬1, 2, ..., n*n-1, 0
+     */
+    static PuzzleBoard standardGoal(int size) {
+        int[][] board = new int[size][size];
+        for (int i = 0; i < size * size; i++) {
+            board[i / size][i % size] = (i + 1) % (size * size);
+        }
+        return new PuzzleBoard(size, board);
+    }
+
+    /**
+     * Ŀ״̬ߵõ (֤ɽ)
+     */
+    static PuzzleBoard[] randomBoards(PuzzleBoard goal, int count) {
+        StdRandom.setSeed(20251017L);
+        PuzzleBoard[] boards = new PuzzleBoard[count];
+        for (int n = 0; n < count; n++) {
+            PuzzleBoard board = goal;
+            for (int step = 0; step < WALK_LENGTH; step++) {
+                board = randomStep(board);
+            }
+            boards[n] = board;
+        }
+        return boards;
+    }
+
+    /**
+     *  start һߣһ
+     */
+    static PuzzleBoard[] randomWalk(PuzzleBoard start, int length) {
+        PuzzleBoard[] walk = new PuzzleBoard[length];
+        walk[0] = start;
+        for (int i = 1; i < length; i++) {
+            walk[i] = randomStep(walk[i - 1]);
+        }
+        return walk;
+    }
+
+    private static PuzzleBoard randomStep(PuzzleBoard board) {
+        List<Action> moves = new ArrayList<>();
+        for (Action action : board.actions()) {
+            if (board.isApplicable(action)) {
+                moves.add(action);
+            }
+        }
+        return (PuzzleBoard) board.next(moves.get(StdRandom.uniform(moves.size())));
+    }
+}
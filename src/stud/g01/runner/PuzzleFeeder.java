@@ -5,12 +5,17 @@ import core.problem.State;
 import core.runner.EngineFeeder;
 import core.solver.algorithm.heuristic.HeuristicType;
 import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
 import core.solver.queue.EvaluationType;
 import core.solver.queue.Frontier;
 import core.solver.queue.Node;
 import stud.g01.problem.npuzzle.NPuzzleProblem;
 import stud.g01.problem.npuzzle.PuzzleBoard;
 import stud.g01.queue.PqFrontier; // ȷʹʵֵ PqFrontier
+import stud.g01.solver.InPlaceIdAStar;
+import stud.g01.solver.PuzzlePredictors;
+import stud.g01.solver.TranspositionIdAStar;
+import stud.queue.StackFrontier;
 
 import java.util.ArrayList;
 
@@ -90,9 +95,32 @@ public class PuzzleFeeder extends EngineFeeder {
         return new PqFrontier(Node.evaluator(type));
     }
 
+    /**
+     * ԭ޸̵ IDA* (InPlaceIdAStar)չʱ
+     * ֻ֧ MANHATTANMANHATTAN_PLUS_LINEAR_CONFLICTS  DISJOINT_PATTERNʽʹͨõ IdAStar
+     * ߳ -Dida.threads ָĬ 1 ()
+     * ָ -Dida.tt.mb=N (N > 0) ʱô N MB ûĵ̰߳汾 (TranspositionIdAStar)
+     */
+    @Override
+    public AbstractSearcher getInPlaceIdaStar(HeuristicType type) {
+        switch (type) {
+            case MANHATTAN:
+            case MANHATTAN_PLUS_LINEAR_CONFLICTS:
+            case DISJOINT_PATTERN:
+                int megabytes = Integer.getInteger("ida.tt.mb", 0);
+                if (megabytes > 0) {
+                    return new TranspositionIdAStar(new StackFrontier(), type, megabytes);
+                }
+                return new InPlaceIdAStar(new StackFrontier(), type, Integer.getInteger("ida.threads", 1));
+            default:
+                return getIdaStar(type);
+        }
+    }
+
     /**
      * ָ͵ʽ (Predictor)
-     * @param type ʽ (MISPLACED, MANHATTAN)
+     * Ԥ״ιֵʱĿʽ (stud.g01.solver.HeuristicContext)ֻ֮ȽĿ
+     * @param type ʽ (MISPLACED, MANHATTAN, ...)
      * @return Predictor ʵ
      */
     @Override
@@ -100,4 +128,12 @@ public class PuzzleFeeder extends EngineFeeder {
         // ί PuzzleBoard ľ̬
         return PuzzleBoard.predictor(type);
     }
+
+    /**
+     * IDA* ʹõʽDISJOINT_PATTERN żѯ (ɲɵһ£ A*)
+     */
+    @Override
+    public Predictor getIdaPredictor(HeuristicType type) {
+        return PuzzlePredictors.idaPredictor(type);
+    }
 }
@@ -0,0 +1,60 @@
+package stud.g01.solver;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ĳһĿʽģپԳͻWalking Distance ֻȡĿݡ
+ * ÿĿֻһΣ޸ģڶ̼߳乲Ԥĺ
+ * ÿιֵֻһñȽȷĿδ䡣
+ * PDB УPDB ں̨ setPartition л PdbRegistry 
+ */
+public final class HeuristicContext {
+
+    // Ŀʽ
+    private static final Map<PuzzleBoard, HeuristicContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private final PuzzleBoard goal;
+    final ManhattanTable manhattan;
+    final WalkingGoal walking;   // ߳ WalkingDistanceTable.MAX_SIZE ʱΪ null
+
+    private HeuristicContext(PuzzleBoard goal) {
+        this.goal = goal;
+        this.manhattan = new ManhattanTable(goal);
+        this.walking = goal.getSize() <= WalkingDistanceTable.MAX_SIZE ? new WalkingGoal(goal) : null;
+    }
+
+    /**
+     * ȡĿ goal ģ״ʹʱ
+     */
+    public static HeuristicContext of(PuzzleBoard goal) {
+        HeuristicContext context = CONTEXTS.get(goal);
+        return context != null ? context : CONTEXTS.computeIfAbsent(goal, HeuristicContext::new);
+    }
+
+    public PuzzleBoard getGoal() {
+        return goal;
+    }
+
+    public int manhattan(PuzzleBoard board) {
+        return manhattan.manhattan(board);
+    }
+
+    /**
+     * @return иеԳͻ֮͵ 2  ( ManhattanTable.linearConflicts)
+     */
+    public int linearConflicts(PuzzleBoard board) {
+        return manhattan.linearConflicts(board);
+    }
+
+    /**
+     * Walking DistanceСҪƶ֮ ( WalkingDistanceTable)
+     * ߳ WalkingDistanceTable.MAX_SIZE ʱپ
+     */
+    public int walkingDistance(PuzzleBoard board) {
+        WalkingGoal.Index index = walking == null ? null : walking.index(board);
+        return index == null ? manhattan.manhattan(board) : index.distance();
+    }
+}
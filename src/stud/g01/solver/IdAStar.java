@@ -1,32 +1,70 @@
 package stud.g01.solver;
 
+import core.problem.Action;
+import core.problem.IndexedSuccessors;
 import core.problem.Problem;
 import core.problem.State;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
 import core.solver.algorithm.heuristic.Predictor;
 import core.solver.algorithm.searcher.AbstractSearcher;
 import core.solver.queue.Frontier;
 import core.solver.queue.Node;
 import stud.g01.problem.npuzzle.PuzzleBoard; //   PuzzleBoard
+import stud.g01.problem.npuzzle.PuzzleMove;
 
-import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  *  A* (IDA*) 㷨ʵ֡
- * (Ż O(1) ѭ - ʹ Long )
+ * (Ż O(1) ѭ - ʹ PuzzleBoard.key() ɵ long ļ5x5 Ҳ)
+ * ·ⷽʽ Pruning -Dida.pruning=PATH_SET|PARENT|FSM ָĬ PATH_SET
+ * ÿʱĽ
+ * ʽջʵ (ݹ)ֻܶڴƣ߳ջС (-Xss) ơ
+ * ջÿһֻ״̬Ķgh һҪԵĶ±꣬״̬±ɲֵ
+ *  NodeҲԤӽ㣻ҵĿΪ·ϵ״̬ Node
  */
 public class IdAStar extends AbstractSearcher {
 
+    /**
+     * ·/֦ʽ
+     *   PATH_SET  ǰ·ϸ״̬ļڼУӽ·ʱ֦ (ֻ֧ N-Puzzle˻ PARENT)
+     *   PARENT    ֹֻصĸ㣬һλд󲿷ֻ 2 κ
+     *   FSM        PARENT Ļظ߷еԶ (MoveSequenceFsm) ֦ (ֻ֧ N-Puzzle)
+     * PARENT  FSM ֤ųлĻ f ֵ޶ضϣӰ
+     */
+    public enum Pruning {
+        PATH_SET,
+        PARENT,
+        FSM
+    }
+
     private final Predictor predictor;
-    private Node solutionNode;
+    private final Pruning pruning;
+    private Pruning activePruning;       // ʵʹõķʽ ( N-Puzzle ʱ PATH_SET ˻ PARENT)
+    private final MoveSequenceFsm fsm;   //  FSM ʽʹ
+    private int solutionDepth;           // ջеȣδҵʱΪ -1
     private int minNextBound;
 
-    //  pathStack ڻ
-    private final Deque<Node> pathStack;
-    //  pathSet ʹ Long  O(1) 
-    private final Set<Long> pathSet;
+    // ʽջ d Ϊ·ϵ״̬ states[d]Ķ moves[d]· costs[d]ֵ estimates[d]
+    // һҪԵĶ± nextChild[d] ״̬ظԶе״̬ fsmStates[d]
+    // ״̬ IndexedSuccessors ʱ actionLists[d] ĿöΪ null
+    private State[] states = new State[64];
+    private Action[] moves = new Action[64];
+    private Action[][] actionLists = new Action[64][];
+    private int[] costs = new int[64];
+    private int[] estimates = new int[64];
+    private int[] nextChild = new int[64];
+    private int[] fsmStates = new int[64];
+    //  pathSet ʹ PuzzleBoard.Key  O(1)  ( PATH_SET ʽʹ)
+    private final Set<PuzzleBoard.Key> pathSet;
+
+    // ӽ (ÿ¼)
+    private long prunedByPathSet;
+    private long prunedByParent;
+    private long prunedBySequence;
 
 
     /**
@@ -35,11 +73,26 @@ public class IdAStar extends AbstractSearcher {
      * @param predictor ʽ
      */
     public IdAStar(Frontier frontier, Predictor predictor) {
+        this(frontier, predictor, Pruning.valueOf(System.getProperty("ida.pruning", "PATH_SET")));
+    }
+
+    /**
+     * @param pruning ·ⷽʽFSM ʹöٵ MoveSequenceFsm.DEFAULT_MAX_LENGTH Զ
+     */
+    public IdAStar(Frontier frontier, Predictor predictor, Pruning pruning) {
+        this(frontier, predictor, pruning, MoveSequenceFsm.DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param fsmLength FSM ʽԶöٵг
+     */
+    public IdAStar(Frontier frontier, Predictor predictor, Pruning pruning, int fsmLength) {
         super(frontier);
         this.predictor = predictor;
+        this.pruning = pruning;
+        this.fsm = pruning == Pruning.FSM ? MoveSequenceFsm.of(fsmLength) : null;
 
-        this.pathStack = new ArrayDeque<>();
-        //  ʼΪ HashSet<Long>
+        //  ʼΪ HashSet<PuzzleBoard.Key>
         this.pathSet = new HashSet<>();
     }
 
@@ -47,23 +100,31 @@ public class IdAStar extends AbstractSearcher {
     public Deque<Node> search(Problem problem) {
         this.nodesGenerated = 0;
         this.nodesExpanded = 0;
+        this.prunedByPathSet = 0;
+        this.prunedByParent = 0;
+        this.prunedBySequence = 0;
 
         Node root = problem.root(predictor);
+        State rootState = root.getState();
+        if (pruning == Pruning.FSM && !(rootState instanceof PuzzleBoard)) {
+            throw new IllegalArgumentException("FSM ֻ֦֧ N-Puzzle");
+        }
+        this.activePruning = pruning;
+        if (pruning == Pruning.PATH_SET && !(rootState instanceof PuzzleBoard)) {
+            System.err.println(": PATH_SET ֻ֦֧ N-Puzzle PARENT");
+            this.activePruning = Pruning.PARENT;
+        }
         this.nodesGenerated = 1;
         int bound = root.evaluation();
 
-        pathStack.clear();
         pathSet.clear();
 
-        //  Long 
+        // Ӹļ
         // ȷ״̬ PuzzleBoard
-        if (root.getState() instanceof PuzzleBoard) {
-            pathStack.push(root);
-            pathSet.add(((PuzzleBoard)root.getState()).toLong()); // ʹ toLong()
-        } else {
-            //  PuzzleBoard ĻˣȻڴĿвҪ
-            pathStack.push(root);
+        if (activePruning == Pruning.PATH_SET) {
+            pathSet.add(((PuzzleBoard) rootState).key()); // ʹ key()
         }
+        // PARENT/FSM ʽʹ·ϣ PuzzleBoard Ҳ޷ɼ
 
 
         while (true) {
@@ -71,14 +132,23 @@ public class IdAStar extends AbstractSearcher {
             System.out.println("Searching with bound: " + bound + " (: " + this.nodesGenerated + " ڵ)");
 
             this.minNextBound = Integer.MAX_VALUE;
-            this.solutionNode = null;
+            this.solutionDepth = -1;
 
-            searchRecursive(problem, bound);
+            states[0] = rootState;
+            costs[0] = root.getPathCost();
+            estimates[0] = root.getHeuristic();
+            searchIterative(problem, bound);
 
-            if (this.solutionNode != null) {
-                return generatePath(this.solutionNode);
+            if (this.solutionDepth >= 0) {
+                reportPruning();
+                Node solution = solutionNode(root);
+                Arrays.fill(states, 0, solutionDepth + 1, null);
+                Arrays.fill(moves, 0, solutionDepth + 1, null);
+                return generatePath(solution);
             }
+            states[0] = null;
             if (this.minNextBound == Integer.MAX_VALUE) {
+                reportPruning();
                 return null;
             }
 
@@ -86,50 +156,195 @@ public class IdAStar extends AbstractSearcher {
         }
     }
 
+    private void reportPruning() {
+        System.out.println("֦ʽ " + activePruning + "·ϼ " + prunedByPathSet + " 㣬һ "
+                + prunedByParent + " ظм " + prunedBySequence + " ");
+    }
+
+    public long prunedByPathSet() {
+        return prunedByPathSet;
+    }
+
+    public long prunedByParent() {
+        return prunedByParent;
+    }
+
+    public long prunedBySequence() {
+        return prunedBySequence;
+    }
+
     /**
-     * IDA* ĺĵݹ
+     * IDA* һʽջݹ飺
+     * ջ״̬±״̬״̬ͨѹջ (depth + 1)ԹջݣҵĿʱֱӷ
      * @param problem ʵ
      * @param bound   ǰ f ֵĽ
      */
-    private void searchRecursive(Problem problem, int bound) {
-        if (this.solutionNode != null) return;
+    private void searchIterative(Problem problem, int bound) {
+        if (!visit(problem, 0, bound)) {
+            return;
+        }
+        int depth = 0;
+        push(problem, depth, fsm == null ? 0 : fsm.start());
 
-        Node currentNode = pathStack.peek();
-        int f = currentNode.evaluation();
+        while (true) {
+            State parent = states[depth];
+            Action[] actions = actionLists[depth];
+            int count = actions == null ? ((IndexedSuccessors) parent).successorCount() : actions.length;
+            if (nextChild[depth] == count) {
+                // ѳԣ (״̬ļڼ䶼·)
+                if (depth == 0) {
+                    actionLists[0] = null;
+                    return;
+                }
+                if (activePruning == Pruning.PATH_SET) {
+                    pathSet.remove(((PuzzleBoard) parent).key());
+                }
+                pop(depth);
+                depth--;
+                continue;
+            }
+            int i = nextChild[depth]++;
+            Action action;
+            State child;
+            if (actions == null) {
+                IndexedSuccessors successors = (IndexedSuccessors) parent;
+                action = successors.successorAction(i);
+                if (!problem.applicable(parent, action)) {
+                    continue;
+                }
+                child = successors.successor(i);
+            } else {
+                action = actions[i];
+                child = parent.next(action);
+            }
+            this.nodesGenerated++;
+
+            int childFsmState = 0;
+            PuzzleBoard.Key childKey = null;
+            if (activePruning != Pruning.PATH_SET) {
+                // һ״̬Ǹ״̬ĸ״̬
+                if (depth > 0 && child.equals(states[depth - 1])) {
+                    prunedByParent++;
+                    continue;
+                }
+                if (fsm != null) {
+                    childFsmState = fsm.next(fsmStates[depth], ((PuzzleMove) action).getDirection().ordinal());
+                    if (childFsmState < 0) {
+                        prunedBySequence++;
+                        continue;
+                    }
+                }
+            } else {
+                //  ؼʹ Key  O(1) 
+                childKey = ((PuzzleBoard) child).key();
+                if (pathSet.contains(childKey)) {
+                    prunedByPathSet++;
+                    continue;
+                }
+            }
+
+            int next = depth + 1;
+            if (next == states.length) {
+                grow();
+            }
+            states[next] = child;
+            moves[next] = action;
+            costs[next] = costs[depth] + problem.stepCost(child, action);
+            estimates[next] = predictor instanceof IncrementalPredictor
+                    ? ((IncrementalPredictor) predictor).heuristics(child, problem.getGoal(), parent, estimates[depth])
+                    : predictor.heuristics(child, problem.getGoal());
+            if (!visit(problem, next, bound)) {
+                if (this.solutionDepth >= 0) {
+                    return;
+                }
+                states[next] = null;
+                moves[next] = null;
+                continue;
+            }
+            depth = next;
+            push(problem, depth, childFsmState);
+            if (childKey != null) {
+                pathSet.add(childKey);
+            }
+        }
+    }
 
+    /**
+     *  depth ״̬f ֵʱ¼һεĽޣĿʱ¼
+     * @return ǷӦչ״̬
+     */
+    private boolean visit(Problem problem, int depth, int bound) {
+        int f = costs[depth] + estimates[depth];
         if (f > bound) {
             this.minNextBound = Math.min(this.minNextBound, f);
-            return;
+            return false;
         }
-
-        if (problem.goal(currentNode.getState())) {
-            this.solutionNode = currentNode;
-            return;
+        if (problem.goal(states[depth])) {
+            this.solutionDepth = depth;
+            return false;
         }
-
         this.nodesExpanded++;
+        return true;
+    }
 
-        // չӽڵ
-        for (Node child : problem.childNodes(currentNode, predictor)) {
-            this.nodesGenerated++;
-
-            // ؼʹ Long  O(1) 
-            long childKey = ((PuzzleBoard)child.getState()).toLong();
-
-            if (!pathSet.contains(childKey)) {
-
-                //  Long 
-                pathStack.push(child);
-                pathSet.add(childKey);
+    /**
+     *  depth ״̬ʼչӵһʼԣ IndexedSuccessors ʱгö
+     */
+    private void push(Problem problem, int depth, int fsmState) {
+        nextChild[depth] = 0;
+        fsmStates[depth] = fsmState;
+        State state = states[depth];
+        if (state instanceof IndexedSuccessors) {
+            actionLists[depth] = null;
+            return;
+        }
+        int count = 0;
+        Action[] actions = new Action[4];
+        for (Action action : state.actions()) {
+            if (problem.applicable(state, action)) {
+                if (count == actions.length) {
+                    actions = Arrays.copyOf(actions, count * 2);
+                }
+                actions[count++] = action;
+            }
+        }
+        actionLists[depth] = Arrays.copyOf(actions, count);
+    }
 
-                searchRecursive(problem, bound);
+    /**
+     *  depth ջͷõ״̬붯
+     */
+    private void pop(int depth) {
+        states[depth] = null;
+        moves[depth] = null;
+        actionLists[depth] = null;
+    }
 
-                // Ƴ Long 
-                // (ע⣺Ǵ pathStack  popȻȡ key)
-                pathSet.remove(((PuzzleBoard)pathStack.pop().getState()).toLong());
+    /**
+     * ջʱӱ
+     */
+    private void grow() {
+        int length = states.length * 2;
+        states = Arrays.copyOf(states, length);
+        moves = Arrays.copyOf(moves, length);
+        actionLists = Arrays.copyOf(actionLists, length);
+        costs = Arrays.copyOf(costs, length);
+        estimates = Arrays.copyOf(estimates, length);
+        nextChild = Arrays.copyOf(nextChild, length);
+        fsmStates = Arrays.copyOf(fsmStates, length);
+    }
 
-                if (this.solutionNode != null) return;
-            }
+    /**
+     * ΪջдӸ solutionDepth ״̬ NodeĶб
+     * @return ·ĩ
+     */
+    private Node solutionNode(Node root) {
+        Node node = root;
+        actionLists[0] = null;
+        for (int d = 1; d <= solutionDepth; d++) {
+            node = new Node(states[d], node, moves[d], costs[d], estimates[d]);
+            actionLists[d] = null;
         }
+        return node;
     }
-}
\ No newline at end of file
+}
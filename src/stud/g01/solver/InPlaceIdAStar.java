@@ -0,0 +1,251 @@
+package stud.g01.solver;
+
+import core.problem.Action;
+import core.problem.Problem;
+import core.solver.algorithm.heuristic.HeuristicType;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * N-Puzzle רõԭ (make/unmake) IDA*
+ * ֻ޸һ MutableBoardӽʱ apply һʱ undo
+ * g  h ǻ͵ľֲչʱ ( Node̡·)
+ * ·ֹֻһĻ f ֵ޶ضϣӰԡ
+ * ҵĿŰ¼߷ӳʼ״̬طų Node ·
+ * ÿε´ MutableBoardDISJOINT_PATTERN  PDB ں̨һεʼʹá
+ * threads > 1 ʱÿεǳг񽻸 ForkJoinPool߳ȡδ
+ * Լ̸һεĽȡСֵ (ԭӵȡС)
+ * һҵĿ񾡿ҵĽⶼŵģŽзһȷ
+ */
+public class InPlaceIdAStar extends AbstractSearcher {
+
+    private final HeuristicType type;
+    private final int threads;
+    private final int splitDepth;   // ڴ֮ǰĽз񣻵߳ʱΪ 0
+
+    /**
+     * @param frontier (ڴ㷨δʹãΪ API Ա)
+     * @param type     ʽͣ MutableBoard.of
+     */
+    public InPlaceIdAStar(Frontier frontier, HeuristicType type) {
+        this(frontier, type, 1);
+    }
+
+    /**
+     * @param threads õ߳ 1 ʱʹ ForkJoinPool 
+     */
+    public InPlaceIdAStar(Frontier frontier, HeuristicType type, int threads) {
+        super(frontier);
+        this.type = type;
+        this.threads = Math.max(threads, 1);
+        // һ֧ԼΪ 2еԼ 16 ߳ھ⸺
+        int depth = 0;
+        for (long tasks = 1; this.threads > 1 && tasks < 16L * this.threads; tasks *= 2) {
+            depth++;
+        }
+        this.splitDepth = depth;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        this.nodesGenerated = 1;
+        this.nodesExpanded = 0;
+        if (!problem.solvable()) {
+            return null;
+        }
+        PuzzleBoard start = (PuzzleBoard) problem.root().getState();
+        PuzzleBoard goal = (PuzzleBoard) problem.getGoal();
+
+        int bound = MutableBoard.of(start, goal, type).heuristic();
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            while (true) {
+                System.out.println("Searching with bound: " + bound + " (: " + this.nodesGenerated + " ڵ)");
+
+                MutableBoard board = MutableBoard.of(start, goal, type);
+                Iteration iteration = new Iteration(bound);
+                SubtreeTask root = new SubtreeTask(iteration, board, new int[64], 0, -1);
+                if (pool != null) {
+                    pool.invoke(root);
+                } else {
+                    root.invoke();
+                }
+                this.nodesExpanded += iteration.expanded.sum();
+                this.nodesGenerated += iteration.generated.sum();
+
+                int[] solution = iteration.solution.get();
+                if (solution != null) {
+                    return generatePath(replay(problem, board, solution));
+                }
+                if (iteration.minNextBound.get() == Integer.MAX_VALUE) {
+                    return null;
+                }
+                bound = iteration.minNextBound.get();
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * һεи״̬
+     */
+    private static final class Iteration {
+        final int bound;
+        final AtomicInteger minNextBound = new AtomicInteger(Integer.MAX_VALUE);
+        // ҵĽ⣺հ׸ڵĸ ()鳤ȼⳤ
+        final AtomicReference<int[]> solution = new AtomicReference<>();
+        final LongAdder expanded = new LongAdder();
+        final LongAdder generated = new LongAdder();
+
+        Iteration(int bound) {
+            this.bound = bound;
+        }
+    }
+
+    /**
+     *  board ǰ״̬ΪС splitDepth ʱΪÿӽ㸴ֳ̲񣬷ֱ
+     */
+    private final class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Iteration iteration;
+        private final MutableBoard board;
+        private int[] path;          // path[d] d+1 հ׸ڵĸ
+        private final int depth;
+        private final int previous; // һ֮ǰհ׸ڵĸӣΪ -1
+        private int minNextBound = Integer.MAX_VALUE;
+        private long expanded;
+        private long generated;
+
+        SubtreeTask(Iteration iteration, MutableBoard board, int[] path, int depth, int previous) {
+            this.iteration = iteration;
+            this.board = board;
+            this.path = path;
+            this.depth = depth;
+            this.previous = previous;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth < splitDepth) {
+                split();
+            } else {
+                dfs(depth, board.heuristic(), previous);
+            }
+            iteration.minNextBound.accumulateAndGet(minNextBound, Math::min);
+            iteration.expanded.add(expanded);
+            iteration.generated.add(generated);
+        }
+
+        private void split() {
+            if (!enter(depth, board.heuristic())) {
+                return;
+            }
+            int blank = board.blank();
+            List<SubtreeTask> children = new ArrayList<>();
+            for (int i = 0; i < board.moveCount(); i++) {
+                int target = board.target(i);
+                if (target == previous) {
+                    continue;
+                }
+                generated++;
+                board.apply(i);
+                int[] childPath = Arrays.copyOf(path, Math.max(path.length, depth + 1));
+                childPath[depth] = target;
+                children.add(new SubtreeTask(iteration, board.copy(), childPath, depth + 1, blank));
+                board.undo();
+            }
+            invokeAll(children);
+        }
+
+        /**
+         * 鵱ǰ㣺ʱ¼ f ֵĿʱ¼
+         * @return ǷӦչǰ
+         */
+        private boolean enter(int g, int h) {
+            if (iteration.solution.get() != null) {
+                return false;   // Ѿҵ
+            }
+            int f = g + h;
+            if (f > iteration.bound) {
+                if (f < minNextBound) {
+                    minNextBound = f;
+                }
+                return false;
+            }
+            if (board.isGoal()) {
+                iteration.solution.compareAndSet(null, Arrays.copyOf(path, g));
+                return false;
+            }
+            expanded++;
+            return true;
+        }
+
+        /**
+         * ǰ
+         * @param g        Ӹǰ״̬Ĳ
+         * @param h        ǰ״ֵ̬
+         * @param previous һ֮ǰհ׸ڵĸ
+         */
+        private void dfs(int g, int h, int previous) {
+            if (!enter(g, h)) {
+                return;
+            }
+            if (g == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            int blank = board.blank();
+            int count = board.moveCount();
+            for (int i = 0; i < count; i++) {
+                int target = board.target(i);
+                if (target == previous) {
+                    continue;
+                }
+                generated++;
+                int childH = board.apply(i);
+                path[g] = target;
+                dfs(g + 1, childH, blank);
+                board.undo();
+                if (iteration.solution.get() != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * ¼Ŀհ׸·ߴӳʼ״̬طţؽ·ĩ
+     * @param solution հ׸ board ڵĸ
+     */
+    static Node replay(Problem problem, MutableBoard board, int[] solution) {
+        Node node = problem.root();
+        for (int cell : solution) {
+            int target = board.originalCell(cell);
+            PuzzleBoard state = (PuzzleBoard) node.getState();
+            for (int i = 0; i < state.successorCount(); i++) {
+                PuzzleBoard child = (PuzzleBoard) state.successor(i);
+                if (child.getBlankRow() * child.getSize() + child.getBlankCol() == target) {
+                    Action action = state.successorAction(i);
+                    node = new Node(child, node, action, node.getPathCost() + problem.stepCost(child, action));
+                    break;
+                }
+            }
+        }
+        return node;
+    }
+}
@@ -0,0 +1,158 @@
+package stud.g01.solver;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+/**
+ * ĳһĿپԳͻ±Ϊ tile * cellCount + cell
+ *   distances  Ƭ tile ڸ cell ʱĿӵľ룬հ׸ (Ƭ 0) Ϊ 0
+ *   rowDigits  Ƭ tile ڸ cell ʱеļĹףĿҲһʱΪ (Ŀ + 1) * (n+1)^УΪ 0
+ *   colDigits  ͬϣеļĹף(Ŀ + 1) * (n+1)^
+ * һ () ļΪӹ֮ͣλμ¡ĿڱеƬĿС n+1 
+ * conflicts[key] ΪҪƳٿƬƬĿ˳һ (ȥеĳ)
+ */
+final class ManhattanTable {
+
+    // ԳͻֻΪֵ߳Ԥȼ ((n+1)^n )ֱӼ
+    private static final int MAX_CONFLICT_TABLE_SIZE = 6;
+
+    final int size;
+    final int cellCount;
+    final int[] distances;
+    final int[] rowDigits;
+    final int[] colDigits;
+    private final byte[] conflicts;   // ߳ MAX_CONFLICT_TABLE_SIZE ʱΪ nullΪֱӼ
+
+    ManhattanTable(PuzzleBoard goal) {
+        int n = goal.getSize();
+        size = n;
+        cellCount = n * n;
+        distances = new int[cellCount * cellCount];
+        rowDigits = new int[cellCount * cellCount];
+        colDigits = new int[cellCount * cellCount];
+        int[] powers = new int[n];
+        for (int i = 0, power = 1; i < n; i++, power *= n + 1) {
+            powers[i] = power;
+        }
+        for (int home = 0; home < cellCount; home++) {
+            int tile = goal.getTile(home / n, home % n);
+            if (tile == 0) {
+                continue;
+            }
+            int homeRow = home / n, homeCol = home % n;
+            for (int cell = 0; cell < cellCount; cell++) {
+                int row = cell / n, col = cell % n;
+                distances[tile * cellCount + cell] = Math.abs(row - homeRow) + Math.abs(col - homeCol);
+                if (row == homeRow) {
+                    rowDigits[tile * cellCount + cell] = (homeCol + 1) * powers[col];
+                }
+                if (col == homeCol) {
+                    colDigits[tile * cellCount + cell] = (homeRow + 1) * powers[row];
+                }
+            }
+        }
+        if (n <= MAX_CONFLICT_TABLE_SIZE) {
+            conflicts = new byte[powers[n - 1] * (n + 1)];
+            for (int key = 0; key < conflicts.length; key++) {
+                conflicts[key] = (byte) countConflicts(key, n);
+            }
+        } else {
+            conflicts = null;
+        }
+    }
+
+    int conflicts(int key) {
+        return conflicts != null ? conflicts[key] : countConflicts(key, size);
+    }
+
+    /**
+     * һ () ԳͻĿڱеƬȥĿλõг
+     */
+    private static int countConflicts(int key, int n) {
+        int[] tails = new int[n];   // tails[k]Ϊ k+1 ĵеСβ
+        int count = 0, longest = 0;
+        for (int i = 0; i < n; i++, key /= n + 1) {
+            int target = key % (n + 1);
+            if (target == 0) {
+                continue;
+            }
+            count++;
+            int k = 0;
+            while (k < longest && tails[k] < target) {
+                k++;
+            }
+            tails[k] = target;
+            if (k == longest) {
+                longest++;
+            }
+        }
+        return count - longest;
+    }
+
+    int manhattan(PuzzleBoard board) {
+        int distance = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                distance += distances[board.getTile(i, j) * cellCount + i * size + j];
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * ɸپ㣺ԸֻһƬƶһ
+     * ( board Ŀհ׸ƵĿհ׸)Ƭľ벻
+     */
+    int manhattan(PuzzleBoard board, PuzzleBoard parent, int parentH) {
+        int from = parent.getBlankRow() * size + parent.getBlankCol();
+        int base = cellCount * board.getTile(parent.getBlankRow(), parent.getBlankCol());
+        return parentH + distances[base + from]
+                - distances[base + board.getBlankRow() * size + board.getBlankCol()];
+    }
+
+    /**
+     * Գͻͬһ () ĿҲһ () Ƭ˳Ŀ෴
+     * һҪƳƻأپ֮ 2 
+     * @return иеĳͻ֮͵ 2 
+     */
+    int linearConflicts(PuzzleBoard board) {
+        int sum = 0;
+        for (int line = 0; line < size; line++) {
+            sum += rowConflicts(board, line) + colConflicts(board, line);
+        }
+        return sum * 2;
+    }
+
+    private int rowConflicts(PuzzleBoard board, int row) {
+        int key = 0;
+        for (int col = 0, cell = row * size; col < size; col++, cell++) {
+            key += rowDigits[board.getTile(row, col) * cellCount + cell];
+        }
+        return conflicts(key);
+    }
+
+    private int colConflicts(PuzzleBoard board, int col) {
+        int key = 0;
+        for (int row = 0, cell = col; row < size; row++, cell += size) {
+            key += colDigits[board.getTile(row, col) * cellCount + cell];
+        }
+        return conflicts(key);
+    }
+
+    /**
+     * ɸֵپԳͻ
+     * һƶֻı䱻ƶƬپ룬Լ뿪ͽ (ƶΪһУΪһ)
+     */
+    int manhattanPlusConflicts(PuzzleBoard board, PuzzleBoard parent, int parentH) {
+        int h = manhattan(board, parent, parentH);
+        int blankRow = board.getBlankRow(), blankCol = board.getBlankCol();
+        int parentRow = parent.getBlankRow(), parentCol = parent.getBlankCol();
+        int delta = rowConflicts(board, blankRow) - rowConflicts(parent, blankRow)
+                + colConflicts(board, blankCol) - colConflicts(parent, blankCol);
+        if (blankRow != parentRow) {
+            delta += rowConflicts(board, parentRow) - rowConflicts(parent, parentRow);
+        } else {
+            delta += colConflicts(board, parentCol) - colConflicts(parent, parentCol);
+        }
+        return h + delta * 2;
+    }
+}
@@ -0,0 +1,254 @@
+package stud.g01.solver;
+
+import stud.g01.problem.npuzzle.PuzzleMove;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ظ߷Զ (duplicate-sequence FSM)
+ * 㹻Ŀϰ (, ֵ) öٿհ׸߷УĸΪ PuzzleMove.Direction
+ * еЧ (հ׸λƬû) һֵ̻Сͬ
+ * Һ߾ĸӶǰ߾ĸ֮ (ǰϿʱҲһ)ǰظС
+ * ȫظн Aho-Corasick Զʱ·ת״̬תΪ -1 ˵·ظУԼ֦
+ * ÿ״̬· (, ֵ) СһظУ˼֦ IDA* ҵŽ⡣
+ * Ϊ 2 ظоǳһ 2x2 еĻ
+ */
+public final class MoveSequenceFsm {
+
+    // Ĭöٵг (10 Լ 300 ظУԼ 1 룻12 Լ 2400 )
+    public static final int DEFAULT_MAX_LENGTH = 10;
+
+    private static final int SYMBOLS = PuzzleMove.ALL.size();
+    private static final Map<Integer, MoveSequenceFsm> CACHE = new ConcurrentHashMap<>();
+
+    private final int maxLength;
+    private final int sequences;      // ظеĸ
+    private final int[] transitions;  // transitions[state * SYMBOLS + symbol]һ״̬-1 ʾ֦
+
+    /**
+     * ȡöٵ maxLength Զ״ʹʱ
+     */
+    public static MoveSequenceFsm of(int maxLength) {
+        if (maxLength < 2 || maxLength > 20) {
+            throw new IllegalArgumentException("ֵ֧г: " + maxLength);
+        }
+        return CACHE.computeIfAbsent(maxLength, MoveSequenceFsm::new);
+    }
+
+    private MoveSequenceFsm(int maxLength) {
+        this.maxLength = maxLength;
+        List<long[]> duplicates = findDuplicates(maxLength);
+        this.sequences = duplicates.size();
+        this.transitions = build(duplicates);
+    }
+
+    /**
+     * @return ʼ״̬ (·Ϊ)
+     */
+    public int start() {
+        return 0;
+    }
+
+    /**
+     * @param symbol ķ (PuzzleMove.Direction.ordinal())
+     * @return һ״̬-1 ʾ·ظнβӦ֦
+     */
+    public int next(int state, int symbol) {
+        return transitions[state * SYMBOLS + symbol];
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return ظеĸ
+     */
+    public int sequenceCount() {
+        return sequences;
+    }
+
+    public int stateCount() {
+        return transitions.length / SYMBOLS;
+    }
+
+    /**
+     *  (, ֵ) öٲ֪ظе߷Уҳµظ
+     * бΪ {moves, length}moves ÿռ 2 λһλ
+     * @return ظеб
+     */
+    private static List<long[]> findDuplicates(int maxLength) {
+        int width = 2 * maxLength + 1;
+        int origin = maxLength * width + maxLength;
+        int[] board = new int[width * width];   // board[cell]ϵƬԭڵĸ
+        for (int cell = 0; cell < board.length; cell++) {
+            board[cell] = cell;
+        }
+        Set<Long> forbidden = new HashSet<>();   // ֪ظУΪ moves * 32 + length
+        List<long[]> duplicates = new ArrayList<>();
+        // Чоĸ
+        Map<String, List<BitSet>> seen = new HashMap<>();
+        BitSet rootCells = new BitSet();
+        seen.computeIfAbsent(effect(0L, 0, board, origin, width, rootCells), key -> new ArrayList<>()).add(rootCells);
+
+        long[] level = {0L};
+        for (int length = 1; length <= maxLength && level.length > 0; length++) {
+            long[] nextLevel = new long[level.length * SYMBOLS];
+            int count = 0;
+            for (long prefix : level) {
+                for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+                    long moves = (prefix << 2) | symbol;
+                    if (hasForbiddenSuffix(moves, length, forbidden)) {
+                        continue;
+                    }
+                    BitSet cells = new BitSet();
+                    String key = effect(moves, length, board, origin, width, cells);
+                    if (key == null) {
+                        continue;   // ߳öõ (ᷢ)
+                    }
+                    List<BitSet> earlier = seen.computeIfAbsent(key, k -> new ArrayList<>());
+                    boolean duplicate = false;
+                    for (BitSet other : earlier) {
+                        BitSet extra = (BitSet) other.clone();
+                        extra.andNot(cells);
+                        if (extra.isEmpty()) {
+                            duplicate = true;
+                            break;
+                        }
+                    }
+                    if (duplicate) {
+                        forbidden.add(moves * 32 + length);
+                        duplicates.add(new long[]{moves, length});
+                    } else {
+                        earlier.add(cells);
+                        nextLevel[count++] = moves;
+                    }
+                }
+            }
+            level = Arrays.copyOf(nextLevel, count);
+        }
+        return duplicates;
+    }
+
+    /**
+     * еĳ׺ () ǷظУ϶̵ĺ׺֮ǰĲж
+     */
+    private static boolean hasForbiddenSuffix(long moves, int length, Set<Long> forbidden) {
+        for (int suffix = 2; suffix <= length; suffix++) {
+            long tail = moves & ((1L << (2 * suffix)) - 1);
+            if (forbidden.contains(tail * 32 + suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ڿϴ origin ִУЧļ (հ׸յϵƬĸ)
+     * ѾĸӼ cellsִкѾĸӻָԭ״
+     */
+    private static String effect(long moves, int length, int[] board, int origin, int width, BitSet cells) {
+        int blank = origin;
+        cells.set(blank);
+        for (int i = length - 1; i >= 0; i--) {
+            PuzzleMove move = PuzzleMove.ALL.get((int) (moves >>> (2 * i)) & 3);
+            int row = blank / width + move.getRowOffset();
+            int col = blank % width + move.getColOffset();
+            if (row < 0 || row >= width || col < 0 || col >= width) {
+                restore(board, cells);
+                return null;
+            }
+            int target = row * width + col;
+            board[blank] = board[target];
+            board[target] = origin;
+            blank = target;
+            cells.set(blank);
+        }
+        StringBuilder key = new StringBuilder().append(blank);
+        for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1)) {
+            if (board[cell] != cell) {
+                key.append(',').append(cell).append(':').append(board[cell]);
+            }
+        }
+        restore(board, cells);
+        return key.toString();
+    }
+
+    private static void restore(int[] board, BitSet cells) {
+        for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1)) {
+            board[cell] = cell;
+        }
+    }
+
+    /**
+     * ظн Aho-Corasick ԶתƱһظнβתƼΪ -1
+     */
+    private static int[] build(List<long[]> duplicates) {
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> accepting = new ArrayList<>();
+        trie.add(newNode());
+        accepting.add(false);
+        for (long[] sequence : duplicates) {
+            long moves = sequence[0];
+            int length = (int) sequence[1];
+            int node = 0;
+            for (int i = length - 1; i >= 0; i--) {
+                int symbol = (int) (moves >>> (2 * i)) & 3;
+                if (trie.get(node)[symbol] < 0) {
+                    trie.get(node)[symbol] = trie.size();
+                    trie.add(newNode());
+                    accepting.add(false);
+                }
+                node = trie.get(node)[symbol];
+            }
+            accepting.set(node, true);
+        }
+
+        //  BFS ˳ȫת (ʧ)ѽ״̬ݸΪ׺״̬
+        int states = trie.size();
+        int[] fail = new int[states];
+        int[] goTo = new int[states * SYMBOLS];
+        boolean[] accept = new boolean[states];
+        for (int node = 0; node < states; node++) {
+            accept[node] = accepting.get(node);
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+            int child = trie.get(0)[symbol];
+            if (child < 0) {
+                goTo[symbol] = 0;
+            } else {
+                goTo[symbol] = child;
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            accept[node] |= accept[fail[node]];
+            for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+                int child = trie.get(node)[symbol];
+                if (child < 0) {
+                    goTo[node * SYMBOLS + symbol] = goTo[fail[node] * SYMBOLS + symbol];
+                } else {
+                    goTo[node * SYMBOLS + symbol] = child;
+                    fail[child] = goTo[fail[node] * SYMBOLS + symbol];
+                    queue.add(child);
+                }
+            }
+        }
+        for (int i = 0; i < goTo.length; i++) {
+            if (accept[goTo[i]]) {
+                goTo[i] = -1;
+            }
+        }
+        return goTo;
+    }
+
+    private static int[] newNode() {
+        int[] children = new int[SYMBOLS];
+        Arrays.fill(children, -1);
+        return children;
+    }
+}
@@ -0,0 +1,431 @@
+package stud.g01.solver;
+
+import core.solver.algorithm.heuristic.HeuristicType;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.Arrays;
+
+/**
+ * ԭƶ̣ԭ (make/unmake)  IDA* ( InPlaceIdAStar) ʹã
+ * apply ѿհ׸ i ڸӲֵundo һ apply߶
+ * ֧ MANHATTANMANHATTAN_PLUS_LINEAR_CONFLICTS  DISJOINT_PATTERN
+ * DISJOINT_PATTERN ڹ淶Ŀ ( PdbRegistry.GoalView)辭 originalCell ӳԭ̣
+ * ʱ PDB δʹù淶Ŀϵپ룬´ɻþ PDB
+ * (InPlaceIdAStar ÿε´ֵֻڵ֮л)
+ */
+public final class MutableBoard {
+    private static final int HISTORY_STRIDE = 5;
+
+    private final int size;
+    private final int cellCount;
+    private final int[][] targets;      // targets[blank]հ׸񽻻ĸ (߷)
+    private final int[] originalCell;   // originalCell[cell]̵ĸԭϵĸ
+    private final int[] goalTiles;      // goalTiles[cell]Ŀ״̬иϵƬ
+    private final int[] tiles;          // tiles[cell]ϵƬ
+    private final int[] cells;          // cells[tile]Ƭڵĸ
+    private int blank;
+    private int h;
+
+    // ״̬ľȷ (ûʹ)ÿϵƬռ keyBits λÿ long  keyCellsPerWord ӣ
+    // հ׸Ϊ 0 ռλ25 ʱĩƬΨһȷ
+    private final int keyBits;
+    private final int keyCellsPerWord;
+    private long keyHigh;
+    private long keyLow;
+
+    // پԳͻ (ʹ PDB ʱ)
+    private final ManhattanTable table;
+    private final boolean linearConflicts;
+    private final int[] rowConflicts;
+    private final int[] colConflicts;
+    private int distance;
+    private int conflictSum;
+
+    // ཻģʽݿ
+    private final PdbRegistry.PdbSet set;
+    private final PatternDatabase[] pdbs;   // Ϊ null ʱʹ PDB
+    private final int[] parts;
+    private final int[] reflectedCells;     // ״̬ƬڵĸӣѯʱΪ null
+    private final int[] reflectedParts;
+    private final int[] dualCells;          // żѯĻżѯʱΪ null
+    private int partSum;
+    private int reflectedSum;
+
+    // ¼ÿ HISTORY_STRIDE  {ԭհ׸, ԭֵ, ޸ĵֵ}ֻڸʱ
+    private int[] history = new int[HISTORY_STRIDE * 64];
+    private int depth;
+
+    /**
+     * @param type MANHATTANMANHATTAN_PLUS_LINEAR_CONFLICTS  DISJOINT_PATTERN
+     */
+    public static MutableBoard of(PuzzleBoard start, PuzzleBoard goal, HeuristicType type) {
+        if (start.getSize() != goal.getSize()) {
+            throw new IllegalArgumentException("ʼ״̬Ŀ״̬ı߳ͬ");
+        }
+        int n = start.getSize();
+        switch (type) {
+            case MANHATTAN:
+            case MANHATTAN_PLUS_LINEAR_CONFLICTS:
+                int[] identity = new int[n * n];
+                for (int i = 0; i < identity.length; i++) {
+                    identity[i] = i;
+                }
+                return new MutableBoard(start, goal, identity, identity, HeuristicContext.of(goal).manhattan,
+                        type == HeuristicType.MANHATTAN_PLUS_LINEAR_CONFLICTS, null, null);
+            case DISJOINT_PATTERN:
+                PdbLog.flush();
+                PdbRegistry.GoalView view = PdbRegistry.viewFor(goal);
+                PdbRegistry.PdbSet set = view.set;
+                PatternDatabase[] current = set.tables;
+                return new MutableBoard(start, set.goal, view.cellMap, view.relabel,
+                        current == null ? HeuristicContext.of(set.goal).manhattan : null, false, set, current);
+            default:
+                throw new IllegalArgumentException("ԭ IDA* ֧ʽ " + type);
+        }
+    }
+
+    private MutableBoard(PuzzleBoard start, PuzzleBoard goal, int[] cellMap, int[] relabel, ManhattanTable table,
+                         boolean linearConflicts, PdbRegistry.PdbSet set, PatternDatabase[] pdbs) {
+        size = start.getSize();
+        cellCount = size * size;
+        targets = PatternDatabase.neighbors(size);
+        originalCell = new int[cellCount];
+        goalTiles = new int[cellCount];
+        tiles = new int[cellCount];
+        cells = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int image = cellMap[cell];
+            originalCell[image] = cell;
+            goalTiles[cell] = goal.getTile(cell / size, cell % size);
+            int tile = relabel[start.getTile(cell / size, cell % size)];
+            tiles[image] = tile;
+            cells[tile] = image;
+        }
+        blank = cells[0];
+        keyBits = cellCount <= 16 ? 4 : 5;
+        keyCellsPerWord = 64 / keyBits;
+        for (int cell = 0; cell < cellCount; cell++) {
+            toggleKey(tiles[cell], cell);
+        }
+
+        this.table = table;
+        this.linearConflicts = linearConflicts;
+        this.set = pdbs == null ? null : set;
+        this.pdbs = pdbs;
+        if (pdbs == null) {
+            rowConflicts = linearConflicts ? new int[size] : null;
+            colConflicts = linearConflicts ? new int[size] : null;
+            parts = null;
+            reflectedCells = null;
+            reflectedParts = null;
+            dualCells = null;
+            for (int cell = 0; cell < cellCount; cell++) {
+                distance += table.distances[tiles[cell] * cellCount + cell];
+            }
+            if (linearConflicts) {
+                for (int line = 0; line < size; line++) {
+                    rowConflicts[line] = rowConflicts(line);
+                    colConflicts[line] = colConflicts(line);
+                    conflictSum += rowConflicts[line] + colConflicts[line];
+                }
+            }
+            h = distance + 2 * conflictSum;
+            return;
+        }
+
+        rowConflicts = null;
+        colConflicts = null;
+        parts = new int[pdbs.length];
+        for (int i = 0; i < pdbs.length; i++) {
+            parts[i] = pdbs[i].getHeuristic(cells);
+            partSum += parts[i];
+        }
+        boolean symmetry = PdbRegistry.symmetryLookups() && !set.exact;
+        if (symmetry && set.reflectTiles != null) {
+            reflectedCells = new int[cellCount];
+            for (int tile = 0; tile < cellCount; tile++) {
+                reflectedCells[set.reflectTiles[tile]] = transpose(cells[tile]);
+            }
+            reflectedParts = new int[pdbs.length];
+            for (int i = 0; i < pdbs.length; i++) {
+                reflectedParts[i] = pdbs[i].getHeuristic(reflectedCells);
+                reflectedSum += reflectedParts[i];
+            }
+        } else {
+            reflectedCells = null;
+            reflectedParts = null;
+        }
+        dualCells = symmetry ? new int[cellCount] : null;
+        h = pdbHeuristic();
+    }
+
+    /**
+     * Ƶǰ״̬ (¼)̸߳һֻı PDB ɸ
+     */
+    private MutableBoard(MutableBoard other) {
+        size = other.size;
+        cellCount = other.cellCount;
+        targets = other.targets;
+        originalCell = other.originalCell;
+        goalTiles = other.goalTiles;
+        tiles = other.tiles.clone();
+        cells = other.cells.clone();
+        blank = other.blank;
+        h = other.h;
+        keyBits = other.keyBits;
+        keyCellsPerWord = other.keyCellsPerWord;
+        keyHigh = other.keyHigh;
+        keyLow = other.keyLow;
+        table = other.table;
+        linearConflicts = other.linearConflicts;
+        rowConflicts = other.rowConflicts == null ? null : other.rowConflicts.clone();
+        colConflicts = other.colConflicts == null ? null : other.colConflicts.clone();
+        distance = other.distance;
+        conflictSum = other.conflictSum;
+        set = other.set;
+        pdbs = other.pdbs;
+        parts = other.parts == null ? null : other.parts.clone();
+        reflectedCells = other.reflectedCells == null ? null : other.reflectedCells.clone();
+        reflectedParts = other.reflectedParts == null ? null : other.reflectedParts.clone();
+        dualCells = other.dualCells == null ? null : new int[cellCount];
+        partSum = other.partSum;
+        reflectedSum = other.reflectedSum;
+    }
+
+    public MutableBoard copy() {
+        return new MutableBoard(this);
+    }
+
+    /**
+     * @return ǰ״ֵ̬
+     */
+    public int heuristic() {
+        return h;
+    }
+
+    public int blank() {
+        return blank;
+    }
+
+    /**
+     * @return ǰ״̬ºϷĸ
+     */
+    public int moveCount() {
+        return targets[blank].length;
+    }
+
+    /**
+     * @return  i ѿհ׸ĸ
+     */
+    public int target(int i) {
+        return targets[blank][i];
+    }
+
+    /**
+     * @return ̵ĸ cell ԭϵĸ
+     */
+    public int originalCell(int cell) {
+        return originalCell[cell];
+    }
+
+    /**
+     * ǰ״̬ȷĸ 64 λ 64 λ (4x4 ¸λΪ 0) apply/undo ά
+     */
+    public long keyHigh() {
+        return keyHigh;
+    }
+
+    public long keyLow() {
+        return keyLow;
+    }
+
+    private void toggleKey(int tile, int cell) {
+        int word = cell / keyCellsPerWord;
+        long bits = (long) tile << (keyBits * (cell % keyCellsPerWord));
+        if (word == 0) {
+            keyLow ^= bits;
+        } else if (word == 1) {
+            keyHigh ^= bits;
+        }
+    }
+
+    public boolean isGoal() {
+        return h == 0 && Arrays.equals(tiles, goalTiles);
+    }
+
+    /**
+     * ѿհ׸ i ڸ
+     * @return ƶֵ
+     */
+    public int apply(int i) {
+        int from = blank;
+        int to = targets[from][i];
+        int tile = tiles[to];
+        int base = depth * HISTORY_STRIDE;
+        if (base == history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        history[base] = from;
+        history[base + 1] = h;
+        depth++;
+
+        tiles[from] = tile;
+        tiles[to] = 0;
+        cells[tile] = from;
+        cells[0] = to;
+        blank = to;
+        toggleKey(tile, to);
+        toggleKey(tile, from);
+
+        if (pdbs == null) {
+            history[base + 2] = distance;
+            distance += table.distances[tile * cellCount + from] - table.distances[tile * cellCount + to];
+            if (linearConflicts) {
+                // ֱƶֻıƬĴˮƽƶֻı
+                if (from / size != to / size) {
+                    history[base + 3] = rowConflicts[from / size];
+                    history[base + 4] = rowConflicts[to / size];
+                    conflictSum += updateRow(from / size) + updateRow(to / size);
+                } else {
+                    history[base + 3] = colConflicts[from % size];
+                    history[base + 4] = colConflicts[to % size];
+                    conflictSum += updateCol(from % size) + updateCol(to % size);
+                }
+            }
+            h = distance + 2 * conflictSum;
+            return h;
+        }
+
+        int p = set.patternOf[tile];
+        if (p >= 0) {
+            history[base + 2] = parts[p];
+            int value = pdbs[p].getHeuristic(cells);
+            partSum += value - parts[p];
+            parts[p] = value;
+        }
+        if (reflectedCells != null) {
+            int reflected = set.reflectTiles[tile];
+            reflectedCells[reflected] = transpose(from);
+            reflectedCells[0] = transpose(to);
+            int q = set.patternOf[reflected];
+            if (q >= 0) {
+                history[base + 3] = reflectedParts[q];
+                int value = pdbs[q].getHeuristic(reflectedCells);
+                reflectedSum += value - reflectedParts[q];
+                reflectedParts[q] = value;
+            }
+        }
+        h = pdbHeuristic();
+        return h;
+    }
+
+    /**
+     * һ applyֵָ
+     */
+    public void undo() {
+        depth--;
+        int base = depth * HISTORY_STRIDE;
+        int from = history[base];
+        int to = blank;
+        int tile = tiles[from];
+        tiles[to] = tile;
+        tiles[from] = 0;
+        cells[tile] = to;
+        cells[0] = from;
+        blank = from;
+        toggleKey(tile, from);
+        toggleKey(tile, to);
+        h = history[base + 1];
+
+        if (pdbs == null) {
+            distance = history[base + 2];
+            if (linearConflicts) {
+                if (from / size != to / size) {
+                    conflictSum += restore(rowConflicts, from / size, history[base + 3])
+                            + restore(rowConflicts, to / size, history[base + 4]);
+                } else {
+                    conflictSum += restore(colConflicts, from % size, history[base + 3])
+                            + restore(colConflicts, to % size, history[base + 4]);
+                }
+            }
+            return;
+        }
+
+        int p = set.patternOf[tile];
+        if (p >= 0) {
+            partSum += restore(parts, p, history[base + 2]);
+        }
+        if (reflectedCells != null) {
+            int reflected = set.reflectTiles[tile];
+            reflectedCells[reflected] = transpose(to);
+            reflectedCells[0] = transpose(from);
+            int q = set.patternOf[reflected];
+            if (q >= 0) {
+                reflectedSum += restore(reflectedParts, q, history[base + 3]);
+            }
+        }
+    }
+
+    /**
+     *  values[i] ָΪ old
+     * @return ָı仯
+     */
+    private static int restore(int[] values, int i, int old) {
+        int delta = old - values[i];
+        values[i] = old;
+        return delta;
+    }
+
+    private int updateRow(int row) {
+        int value = rowConflicts(row);
+        int delta = value - rowConflicts[row];
+        rowConflicts[row] = value;
+        return delta;
+    }
+
+    private int updateCol(int col) {
+        int value = colConflicts(col);
+        int delta = value - colConflicts[col];
+        colConflicts[col] = value;
+        return delta;
+    }
+
+    private int rowConflicts(int row) {
+        int key = 0;
+        for (int cell = row * size, end = cell + size; cell < end; cell++) {
+            key += table.rowDigits[tiles[cell] * cellCount + cell];
+        }
+        return table.conflicts(key);
+    }
+
+    private int colConflicts(int col) {
+        int key = 0;
+        for (int cell = col; cell < cellCount; cell += size) {
+            key += table.colDigits[tiles[cell] * cellCount + cell];
+        }
+        return table.conflicts(key);
+    }
+
+    /**
+     * ԭ״̬뷴״̬ĸģʽ֮ͣհ׸Ŀλʱٲѯż״̬ȡֵ (ͬ PdbPredictor.pdbHeuristic)
+     * MutableBoard ֻ IDA* ʹãҪһԣżѯ
+     */
+    private int pdbHeuristic() {
+        int best = Math.max(partSum, reflectedCells != null ? reflectedSum : 0);
+        if (dualCells != null && blank == set.homeCells[0]) {
+            for (int m = 0; m < cellCount; m++) {
+                dualCells[set.goalTiles[cells[set.goalTiles[m]]]] = m;
+            }
+            int dual = 0;
+            for (PatternDatabase pdb : pdbs) {
+                dual += pdb.getHeuristic(dualCells);
+            }
+            best = Math.max(best, dual);
+        }
+        return best;
+    }
+
+    private int transpose(int cell) {
+        return (cell % size) * size + cell / size;
+    }
+}
@@ -1,21 +1,87 @@
 package stud.g01.solver;
 
-import core.problem.Action;
 import stud.g01.problem.npuzzle.PuzzleBoard;
 import stud.g01.problem.npuzzle.PuzzleMove;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * ģʽݿ (PDB) ʵ֡
- *
+ * ִ֧洢ʽ
+ *   MAP      HashMap<Long, Byte>Ϊ toAbstractLong ɵĳ (ÿ 4 λֻ֧ 4x4)
+ *   RANKED    (ģʽƬ, հ׸) λΪ±꣬ byte[] 
+ *   COMPACT  ֻģʽƬλпհ׸λеС룬ĴСֻ RANKED  1/(-k)
+ * RANKED/COMPACT 洢ԱΪ PDB ļ ( PdbFile)ֱ֮ڴӳļṩѯ¹
+ * ģ (Cost)
+ *   UNIT      հ׸ÿƶһΪ 1֮Ͳɼӣֻȡֵű֤ɲ
+ *   ADDITIVE  ֻƶģʽƬһΪ 1ģʽƬΪ 0 (0-1 BFS)
+ *               ཻģʽıֱӣǿɲɵ
+ * ı (Encoding)
+ *   BYTE    ÿ 1 ֽ
+ *   NIBBLE  ÿ 4 أ 15 ľضΪ 15 (ضϺǿɲɵ)
  */
 public class PatternDatabase {
 
-    private final Map<Long, Byte> database;
+    /**
+     * PDB Ĵ洢ʽ
+     */
+    public enum Storage {
+        MAP,
+        RANKED,
+        COMPACT
+    }
+
+    /**
+     *  PDB ʱһƶĴ
+     */
+    public enum Cost {
+        UNIT,
+        ADDITIVE
+    }
+
+    /**
+     * RANKED/COMPACT ı
+     */
+    public enum Encoding {
+        BYTE,
+        NIBBLE;
+
+        /**
+         * n ֽ
+         */
+        long bytes(long n) {
+            return this == NIBBLE ? (n + 1) / 2 : n;
+        }
+    }
+
+    private final Storage storage;
+    private final Cost cost;
+    private final Encoding encoding;
     private final Set<Integer> pattern;
     private final int size;
 
+    // --- MAP 洢 ---
+    private Map<Long, Byte> database;
+
+    // --- RANKED / COMPACT 洢 ---
+    private PatternRanker ranker;       // (ģʽƬ..., հ׸)  BFS ״̬ռ
+    private PatternRanker tableRanker;  // ±꣺RANKED ͬ rankerCOMPACT ֻģʽƬ
+    private byte[] table;       // ʱʹõľ (ÿ 1 ֽ)
+    private ByteBuffer entries; // ѯʹõİ encoding ľڴӳ PDB ļ
+    // slotOf[tile]Ƭλе± (ģʽƬΪ 0..k-1հ׸Ϊ kΪ -1)
+    private int[] slotOf;
+    private int[] tiles;   // еģʽƬ
+    private int[] rankObjects;   // ĶģʽƬǿհ׸ 0
+    // neighbors[cell] cell ڵĸ
+    private int[][] neighbors;
+
     // Ԥȼ 4x4 ÿλõ 'long'  (mask)
     private static final long[][] MASKS = new long[4][4];
     // Ԥȼÿλõ 'long' λ
@@ -31,11 +97,137 @@ public class PatternDatabase {
         }
     }
 
+    // ĬϵĹ߳
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    // buildAndSave õĹ̳߳أͬһֵļűں̨ͬʱʱ DEFAULT_THREADS ̣߳
+    // Ǹһ̳߳ʹ CPU ռ (߳Ϊػ̣߳贴)
+    private static final ForkJoinPool SHARED_BUILD_POOL = DEFAULT_THREADS > 1 ? new ForkJoinPool(DEFAULT_THREADS) : null;
+
     public PatternDatabase(Set<Integer> pattern, PuzzleBoard goal) {
+        this(pattern, goal, Storage.RANKED, DEFAULT_THREADS);
+    }
+
+    public PatternDatabase(Set<Integer> pattern, PuzzleBoard goal, Storage storage) {
+        this(pattern, goal, storage, 1);
+    }
+
+    /**
+     * @param threads õ߳ 1 ʱʹͬĲ BFS ( RANKED/COMPACT 洢)
+     */
+    public PatternDatabase(Set<Integer> pattern, PuzzleBoard goal, Storage storage, int threads) {
+        this(pattern, goal, storage, Cost.UNIT, threads);
+    }
+
+    public PatternDatabase(Set<Integer> pattern, PuzzleBoard goal, Storage storage, Cost cost, int threads) {
+        this(pattern, goal, storage, cost, Encoding.BYTE, threads);
+    }
+
+    /**
+     * @param cost     ģͣADDITIVE ֧ RANKED/COMPACT 洢
+     * @param encoding ı룻MAP 洢ֻ֧ BYTE
+     * @param threads  õ߳
+     */
+    public PatternDatabase(Set<Integer> pattern, PuzzleBoard goal, Storage storage, Cost cost, Encoding encoding,
+                           int threads) {
+        this(pattern, goal, storage, cost, encoding, threads, null);
+    }
+
+    /**
+     * @param pool йõ̳߳أΪ null ʱ threads Խ̳߳أɺر
+     */
+    private PatternDatabase(Set<Integer> pattern, PuzzleBoard goal, Storage storage, Cost cost, Encoding encoding,
+                            int threads, ForkJoinPool pool) {
         this.pattern = pattern;
         this.size = goal.getSize();
-        this.database = new HashMap<>();
-        build(goal);
+        this.storage = storage;
+        this.cost = cost;
+        this.encoding = encoding;
+        checkEncoding();
+        if (storage == Storage.MAP) {
+            if (size != 4) {
+                throw new IllegalArgumentException("MAP 洢 long ֻ֧ 4x4 ̣ʹ RANKED/COMPACT 洢");
+            }
+            if (threads > 1) {
+                throw new IllegalArgumentException("MAP 洢ֲ֧й");
+            }
+            if (cost != Cost.UNIT) {
+                throw new IllegalArgumentException("MAP 洢ֻ֧ UNIT ");
+            }
+            this.database = new HashMap<>();
+            build(goal);
+        } else {
+            buildRanked(goal, threads, pool);
+            this.entries = encode(table);
+            this.table = null;
+        }
+    }
+
+    /**
+     * еľ (ڴӳ PDB ļ)  RANKED/COMPACT 洢 PDB
+     */
+    private PatternDatabase(Set<Integer> pattern, int size, Storage storage, Cost cost, Encoding encoding,
+                            ByteBuffer entries) {
+        this.pattern = pattern;
+        this.size = size;
+        this.storage = storage;
+        this.cost = cost;
+        this.encoding = encoding;
+        checkEncoding();
+        initRanking();
+        if (entries.capacity() != encoding.bytes(tableRanker.size())) {
+            throw new IllegalArgumentException("Сģʽ: " + pattern);
+        }
+        this.entries = entries;
+    }
+
+    /**
+     * ڴӳ dir ¶Ӧ PDB ļļڻЧʱ¹дļ֮ʹ
+     * @param dir PDB ļĿ¼
+     */
+    public static PatternDatabase loadOrBuild(Set<Integer> pattern, PuzzleBoard goal, Storage storage, Cost cost,
+                                              Encoding encoding, Path dir) {
+        PatternDatabase pdb = load(pattern, goal, storage, cost, encoding, dir);
+        return pdb != null ? pdb : buildAndSave(pattern, goal, storage, cost, encoding, dir);
+    }
+
+    /**
+     * ڴӳ dir ¶Ӧ PDB ļ ( BFSֻ뼶ʱ)
+     * @return ļڻЧʱΪ null
+     */
+    public static PatternDatabase load(Set<Integer> pattern, PuzzleBoard goal, Storage storage, Cost cost,
+                                       Encoding encoding, Path dir) {
+        int[] tiles = sortedTiles(pattern);
+        int[] goalCells = flatten(goal);
+        Path file = PdbFile.path(dir, goal.getSize(), storage, cost, encoding, tiles, goalCells);
+        try {
+            MappedByteBuffer mapped = PdbFile.map(file, goal.getSize(), storage, cost, encoding, tiles, goalCells);
+            if (mapped != null) {
+                PdbLog.info("PDB " + pattern + " Ѵļӳ: " + file);
+                return new PatternDatabase(pattern, goal.getSize(), storage, cost, encoding, mapped);
+            }
+        } catch (IOException e) {
+            PdbLog.warn("޷ȡ PDB ļ " + file + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * ¹ PDBд dir ¶Ӧļ֮ʹ
+     */
+    public static PatternDatabase buildAndSave(Set<Integer> pattern, PuzzleBoard goal, Storage storage, Cost cost,
+                                               Encoding encoding, Path dir) {
+        int[] tiles = sortedTiles(pattern);
+        int[] goalCells = flatten(goal);
+        Path file = PdbFile.path(dir, goal.getSize(), storage, cost, encoding, tiles, goalCells);
+        PatternDatabase pdb = new PatternDatabase(pattern, goal, storage, cost, encoding, DEFAULT_THREADS,
+                SHARED_BUILD_POOL);
+        try {
+            PdbFile.write(file, goal.getSize(), storage, cost, encoding, tiles, goalCells, pdb.entries);
+            PdbLog.info("PDB " + pattern + " ѱ浽ļ: " + file);
+        } catch (IOException e) {
+            PdbLog.warn("޷д PDB ļ " + file + ": " + e.getMessage());
+        }
+        return pdb;
     }
 
     /**
@@ -70,14 +262,8 @@ public class PatternDatabase {
             }
 
             // ģĸƶ
-            for (PuzzleMove.Direction dir : PuzzleMove.Direction.values()) {
-                int newRow = currentRow, newCol = currentCol;
-                switch (dir) {
-                    case UP:    newRow--; break;
-                    case DOWN:  newRow++; break;
-                    case LEFT:  newCol--; break;
-                    case RIGHT: newCol++; break;
-                }
+            for (PuzzleMove move : PuzzleMove.ALL) {
+                int newRow = currentRow + move.getRowOffset(), newCol = currentCol + move.getColOffset();
 
                 // ǷԽ
                 if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size) {
@@ -92,7 +278,7 @@ public class PatternDatabase {
             }
         }
         long duration = (System.currentTimeMillis() - startTime) / 1000;
-        System.out.println("PDB " + pattern + " build complete. Total states: " + database.size() + ", Max depth: " + maxDepth + ", Time: " + duration + "s");
+        PdbLog.info("PDB " + pattern + " build complete. Total states: " + database.size() + ", Max depth: " + maxDepth + ", Time: " + duration + "s");
     }
 
     /**
@@ -130,17 +316,509 @@ public class PatternDatabase {
     }
 
 
+    /**
+     * ʹͬ BFS Ŀ״̬򹹽 RANKED/COMPACT 洢 PDB
+     * ״̬ռΪ (ģʽƬ, հ׸) ܳ int Χ ( 8 ƬʱԼ 41.5 )
+     *  visited ÿһ frontier ðַλͼʾÿ״ֻ̬ռɱء
+     * ÿһ
+     *   1. ɸѡһĺѡδʵ״̬ڱ㣬¼
+     *   2. չΪ 1 ĺ̷һĺѡADDITIVE ´Ϊ 0 ĺڱ㣬
+     *      ֱӼ¼ڱڼչֱٲ״̬ (0-1 BFS)
+     * threads > 1 ʱÿһλͼп齻 ForkJoinPool ִУ뵥߳ȫͬ
+     * @param shared õ̳߳أΪ null ʱԽ threads ̵̳߳߳
+     */
+    private void buildRanked(PuzzleBoard goal, int threads, ForkJoinPool shared) {
+        initRanking();
+        table = new byte[(int) tableRanker.size()];
+        Arrays.fill(table, (byte) -1); // -1 ʾδ
+
+        long states = ranker.size();
+        Bitmap visited = new Bitmap(states);
+        Bitmap frontier = new Bitmap(states);
+        Bitmap zero = cost == Cost.ADDITIVE ? new Bitmap(states) : null;
+        Bitmap next = new Bitmap(states);
+
+        // Ŀ״̬
+        frontier.set(ranker.rank(positionsOf(goal)));
+
+        long startTime = System.currentTimeMillis();
+        ForkJoinPool own = shared == null && threads > 1 ? new ForkJoinPool(threads) : null;
+        ForkJoinPool pool = shared != null ? shared : own;
+        long total = 0;
+        int depth = 0;
+        try {
+            while (true) {
+                long found = run(pool, new FilterTask(frontier, visited, (byte) depth, 0, frontier.wordCount(), pool != null));
+                if (found == 0) {
+                    break;
+                }
+                total += found;
+                // չ㣻ɨλͼѱ㣬ֱ 0 ۺ̵
+                Bitmap current = frontier;
+                while (true) {
+                    found = run(pool, new ExpandTask(current, zero, next, visited, (byte) depth, 0, current.wordCount(),
+                            pool != null));
+                    if (found == 0) {
+                        break;
+                    }
+                    total += found;
+                    Bitmap empty = current;
+                    current = zero;
+                    zero = empty;
+                }
+                depth++;
+                frontier = next;
+                next = current;
+            }
+        } finally {
+            if (own != null) {
+                own.shutdown();
+            }
+        }
+        long duration = (System.currentTimeMillis() - startTime) / 1000;
+        PdbLog.info("PDB " + pattern + " (" + storage + ", " + cost + ", " + (pool != null ? pool.getParallelism() : 1)
+                + (shared != null ? " ߳, ̳߳" : " ߳") + ") build complete. Total states: " + total + ", Max depth: " + (depth - 1) + ", Time: " + duration + "s");
+    }
+
+    private static long run(ForkJoinPool pool, WordTask task) {
+        return pool != null ? pool.invoke(task) : task.invoke();
+    }
+
+    /**
+     * ¼״̬ index ľ룻COMPACT 洢ͬһģʽƬ״αʱȼΪհ׸λеС
+     */
+    private void record(long index, byte cost) {
+        int entry = (int) (storage == Storage.COMPACT ? index / blankRadix() : index);
+        if (table[entry] < 0) {
+            table[entry] = cost;
+        }
+    }
+
+    /**
+     * հ׸һλȡֵΪģʽƬĸ
+     */
+    private int blankRadix() {
+        return size * size - (ranker.getK() - 1);
+    }
+
+    /**
+     * ģʽ slotOf 
+     */
+    private void initRanking() {
+        int cells = size * size;
+        tiles = sortedTiles(pattern);
+
+        slotOf = new int[cells];
+        Arrays.fill(slotOf, -1);
+        for (int i = 0; i < tiles.length; i++) {
+            slotOf[tiles[i]] = i;
+        }
+        slotOf[0] = tiles.length;
+        rankObjects = Arrays.copyOf(tiles, tiles.length + 1);
+
+        neighbors = neighbors(size);
+        ranker = new PatternRanker(cells, tiles.length + 1);
+        tableRanker = storage == Storage.COMPACT ? new PatternRanker(cells, tiles.length) : ranker;
+        if (tableRanker.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ģʽ޷ byte[] 洢: " + pattern + "ʹ COMPACT 洢");
+        }
+    }
+
+    private void checkEncoding() {
+        if (storage == Storage.MAP && encoding != Encoding.BYTE) {
+            throw new IllegalArgumentException("MAP 洢֧ " + encoding + " ");
+        }
+    }
+
+    /**
+     * ѹõľ encoding 룻δʵı (-1) Ϊ 0
+     */
+    private ByteBuffer encode(byte[] table) {
+        if (encoding == Encoding.BYTE) {
+            return ByteBuffer.wrap(table);
+        }
+        byte[] packed = new byte[(int) encoding.bytes(table.length)];
+        long clamped = 0;
+        for (int i = 0; i < table.length; i++) {
+            int value = Math.max(table[i], 0);
+            if (value > 15) {
+                value = 15;
+                clamped++;
+            }
+            packed[i >>> 1] |= value << ((i & 1) << 2);
+        }
+        if (clamped > 0) {
+            PdbLog.warn("PDB " + pattern + " NIBBLE 룺" + clamped + "  (ռ "
+                    + String.format("%.2f%%", 100.0 * clamped / table.length) + ") ľ 15ѽضΪ 15");
+        }
+        return ByteBuffer.wrap(packed);
+    }
+
+    private static int[] sortedTiles(Set<Integer> pattern) {
+        return pattern.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static int[] flatten(PuzzleBoard board) {
+        int size = board.getSize();
+        int[] cells = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cells[i * size + j] = board.getTile(i, j);
+            }
+        }
+        return cells;
+    }
+
+    // ÿҶɨλͼ
+    private static final int LEAF_WORDS = 1 << 12;
+
+    /**
+     * λͼе [from, to) ֵϴʱ԰
+     */
+    private abstract static class WordTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        final int from, to;
+        final boolean parallel;
+
+        WordTask(int from, int to, boolean parallel) {
+            this.from = from;
+            this.to = to;
+            this.parallel = parallel;
+        }
+
+        abstract WordTask split(int from, int to);
+
+        /**
+         * @return ¼¼״̬
+         */
+        abstract long scan(int from, int to);
+
+        @Override
+        protected Long compute() {
+            if (parallel && to - from > LEAF_WORDS) {
+                int mid = (from + to) >>> 1;
+                WordTask left = split(from, mid);
+                left.fork();
+                long right = split(mid, to).compute();
+                return right + left.join();
+            }
+            return scan(from, to);
+        }
+    }
+
+    /**
+     * ɸѡѡλͼδʵ״̬Ϊѷʲ¼룬ѷʹĴӺѡȥ
+     */
+    private final class FilterTask extends WordTask {
+        private static final long serialVersionUID = 1L;
+
+        private final Bitmap candidates, visited;
+        private final byte depth;
+
+        FilterTask(Bitmap candidates, Bitmap visited, byte depth, int from, int to, boolean parallel) {
+            super(from, to, parallel);
+            this.candidates = candidates;
+            this.visited = visited;
+            this.depth = depth;
+        }
+
+        @Override
+        WordTask split(int from, int to) {
+            return new FilterTask(candidates, visited, depth, from, to, true);
+        }
+
+        @Override
+        long scan(int from, int to) {
+            long found = 0;
+            for (int i = from; i < to; i++) {
+                long word = candidates.word(i);
+                long kept = word;
+                while (word != 0) {
+                    long index = ((long) i << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (visited.set(index)) {
+                        record(index, depth);
+                        found++;
+                    } else {
+                        kept &= ~(1L << index);
+                    }
+                }
+                candidates.setWord(i, kept);
+            }
+            return found;
+        }
+    }
+
+    /**
+     * չλͼ current е״̬ (ǵľΪ depth)ɨֱ
+     * Ϊ 1 ĺ̷ nextһ FilterTask ɸѡ
+     * Ϊ 0 ĺ ( ADDITIVE) Ҳ depth״λ visited ̼߳¼ zero
+     */
+    private final class ExpandTask extends WordTask {
+        private static final long serialVersionUID = 1L;
+
+        private final Bitmap current, zero, next, visited;
+        private final byte depth;
+
+        ExpandTask(Bitmap current, Bitmap zero, Bitmap next, Bitmap visited, byte depth, int from, int to,
+                   boolean parallel) {
+            super(from, to, parallel);
+            this.current = current;
+            this.zero = zero;
+            this.next = next;
+            this.visited = visited;
+            this.depth = depth;
+        }
+
+        @Override
+        WordTask split(int from, int to) {
+            return new ExpandTask(current, zero, next, visited, depth, from, to, true);
+        }
+
+        @Override
+        long scan(int from, int to) {
+            long found = 0;
+            int[] pos = new int[ranker.getK()];
+            long[] children = new long[4];
+            boolean[] tileMoved = new boolean[4];
+            for (int i = from; i < to; i++) {
+                long word = current.takeWord(i);
+                while (word != 0) {
+                    long index = ((long) i << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int n = expand(index, pos, children, tileMoved);
+                    for (int c = 0; c < n; c++) {
+                        long child = children[c];
+                        if (tileMoved[c] || cost == Cost.UNIT) {
+                            if (!visited.get(child)) {
+                                next.set(child);
+                            }
+                        } else if (visited.set(child)) {
+                            zero.set(child);
+                            record(child, depth);
+                            found++;
+                        }
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Ϊ index ״̬к״̬
+     * @param pos       ݴλõ (Ϊ k+1)
+     * @param children   (Ϊ 4)
+     * @param tileMoved 飺tileMoved[c] ʾ c ǷƶģʽƬ
+     * @return ̸
+     */
+    private int expand(long index, int[] pos, long[] children, boolean[] tileMoved) {
+        ranker.unrank(index, pos);
+        int k = pos.length - 1;
+        int blank = pos[k];
+        int tileMask = 0;
+        for (int i = 0; i < k; i++) {
+            tileMask |= 1 << pos[i];
+        }
+        // հ׸һλģʽƬʱֻһλ仯
+        long base = index - blankDigit(blank, tileMask);
+        int n = 0;
+        for (int next : neighbors[blank]) {
+            if ((tileMask & (1 << next)) == 0) {
+                tileMoved[n] = false;
+                children[n++] = base + blankDigit(next, tileMask);
+                continue;
+            }
+            // next ģʽƬƬƵԭհ׸
+            int slot = 0;
+            while (pos[slot] != next) {
+                slot++;
+            }
+            pos[slot] = blank;
+            pos[k] = next;
+            tileMoved[n] = true;
+            children[n++] = ranker.rank(pos);
+            pos[slot] = next;
+            pos[k] = blank;
+        }
+        return n;
+    }
+
+    private static int blankDigit(int cell, int tileMask) {
+        return cell - Integer.bitCount(tileMask & ((1 << cell) - 1));
+    }
+
+    /**
+     *  long ±ַԭλͼ
+     */
+    private static final class Bitmap {
+        private final AtomicLongArray words;
+
+        Bitmap(long bits) {
+            long count = (bits + 63) >>> 6;
+            if (count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("״̬ռ: " + bits);
+            }
+            words = new AtomicLongArray((int) count);
+        }
+
+        int wordCount() {
+            return words.length();
+        }
+
+        /**
+         * ԭӵذѵ index λ 1
+         * @return true ʾ߳״λ
+         */
+        boolean set(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            while (true) {
+                long old = words.get(word);
+                if ((old & mask) != 0) {
+                    return false;
+                }
+                if (words.compareAndSet(word, old, old | mask)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean get(long index) {
+            return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+        }
+
+        long word(int i) {
+            return words.get(i);
+        }
+
+        void setWord(int i, long word) {
+            words.set(i, word);
+        }
+
+        /**
+         * ȡ i ֲ (ÿֻһɨ)
+         */
+        long takeWord(int i) {
+            long word = words.get(i);
+            if (word != 0) {
+                words.set(i, 0);
+            }
+            return word;
+        }
+    }
+
+    /**
+     * ÿ (ȱ) ĸϵڸ
+     */
+    static int[][] neighbors(int size) {
+        int[][] result = new int[size * size][];
+        for (int cell = 0; cell < size * size; cell++) {
+            int row = cell / size, col = cell % size;
+            int[] buffer = new int[4];
+            int n = 0;
+            for (PuzzleMove move : PuzzleMove.ALL) {
+                int newRow = row + move.getRowOffset(), newCol = col + move.getColOffset();
+                if (newRow >= 0 && newRow < size && newCol >= 0 && newCol < size) {
+                    buffer[n++] = newRow * size + newCol;
+                }
+            }
+            result[cell] = Arrays.copyOf(buffer, n);
+        }
+        return result;
+    }
+
+    /**
+     * ȡϸģʽƬհ׸λ ( slotOf ˳)
+     */
+    private int[] positionsOf(PuzzleBoard board) {
+        int[] pos = new int[ranker.getK()];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int slot = slotOf[board.getTile(i, j)];
+                if (slot >= 0) {
+                    pos[slot] = i * size + j;
+                }
+            }
+        }
+        return pos;
+    }
+
     /**
      * ݿлȡֵ (O(1) ѯ)
+     *  MAP 洢RANKED 洢޷ 4 λƬ 15 롰ġƬ 0xF
      */
     public int getHeuristic(long key) {
+        if (storage != Storage.MAP) {
+            throw new UnsupportedOperationException(storage + " 洢ʹ getHeuristic(PuzzleBoard)");
+        }
         return database.getOrDefault(key, (byte) 0);
     }
 
+    /**
+     * ֱ̻ȡֵ
+     * RANKED/COMPACT 洢һ + һȡ
+     */
+    public int getHeuristic(PuzzleBoard board) {
+        if (storage == Storage.MAP) {
+            return getHeuristic(board.toAbstractLong(pattern));
+        }
+        return lookup((int) tableRanker.rank(positionsOf(board)));
+    }
+
+    /**
+     * ɸƬڵĸӻȡֵ÷ά tileCellsÿɨ
+     * ֱӰ tileCells 
+     * @param tileCells tileCells[tile]Ƭ (հ׸ 0) ڵĸ ()
+     */
+    public int getHeuristic(int[] tileCells) {
+        if (storage == Storage.MAP) {
+            throw new UnsupportedOperationException("MAP 洢ʹ getHeuristic(PuzzleBoard)");
+        }
+        return lookup((int) tableRanker.rank(tileCells, rankObjects));
+    }
+
+    private int lookup(int index) {
+        if (encoding == Encoding.NIBBLE) {
+            return (entries.get(index >>> 1) >>> ((index & 1) << 2)) & 0xF;
+        }
+        return Math.max(entries.get(index), 0);
+    }
+
     /**
      *  PuzzleBoard ȡģʽ
      */
     public Set<Integer> getPattern() {
         return this.pattern;
     }
-}
\ No newline at end of file
+
+    /**
+     * RANKED/COMPACT  CRC32 УͣڱȽϲͬʽõıǷͬ
+     */
+    public long checksum() {
+        if (storage == Storage.MAP) {
+            throw new UnsupportedOperationException("MAP 洢֧У");
+        }
+        return PdbFile.checksum(entries);
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public Cost getCost() {
+        return cost;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * ռõֽ (RANKED/COMPACT)
+     */
+    public long getTableBytes() {
+        return entries == null ? 0 : entries.capacity();
+    }
+}
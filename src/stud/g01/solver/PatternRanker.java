@@ -0,0 +1,102 @@
+package stud.g01.solver;
+
+/**
+ * еϣ (rank / unrank)
+ *  k ͬĸӱ (0..cells-1) һһӳ䵽 [0, cells!/(cells-k)!) ĳ±꣬
+ *  PDB һά HashMap 洢롣
+ */
+public final class PatternRanker {
+
+    private final int cells;    // ̸ (15-Puzzle Ϊ 16)
+    private final int k;        // ŵĶ (հ׸ + ģʽƬ)
+    private final long size;    // ±ռС cells!/(cells-k)!
+
+    public PatternRanker(int cells, int k) {
+        if (k > cells || cells > Integer.SIZE - 1) {
+            throw new IllegalArgumentException("ֵ֧Ĺģ: cells=" + cells + ", k=" + k);
+        }
+        this.cells = cells;
+        this.k = k;
+        long s = 1;
+        for (int i = 0; i < k; i++) {
+            s *= cells - i;
+        }
+        this.size = s;
+    }
+
+    /**
+     * positions[i] Ϊ i ڵĸ
+     *  i λġ֡Ϊ positions[i] δռõĸеţϽ (cells, cells-1, ...) ۼ
+     * @param positions Ϊ k λ
+     * @return ±
+     */
+    public long rank(int[] positions) {
+        long index = 0;
+        int used = 0;
+        for (int i = 0; i < k; i++) {
+            int p = positions[i];
+            int digit = p - Integer.bitCount(used & ((1 << p) - 1));
+            index = index * (cells - i) + digit;
+            used |= 1 << p;
+        }
+        return index;
+    }
+
+    /**
+     *  rank ͬ i ĸȡ cellOf[objects[i]]÷ƴλ
+     * @param cellOf  cellOf[object]ڵĸ
+     * @param objects Ϊ k Ķ
+     */
+    public long rank(int[] cellOf, int[] objects) {
+        long index = 0;
+        int used = 0;
+        for (int i = 0; i < k; i++) {
+            int p = cellOf[objects[i]];
+            int digit = p - Integer.bitCount(used & ((1 << p) - 1));
+            index = index * (cells - i) + digit;
+            used |= 1 << p;
+        }
+        return index;
+    }
+
+    /**
+     * ±껹ԭΪڵĸ
+     * @param index     ±
+     * @param positions 飬Ϊ k
+     */
+    public void unrank(long index, int[] positions) {
+        // 1. Ͻƴӵλλȡÿһλ
+        for (int i = k - 1; i >= 0; i--) {
+            int base = cells - i;
+            positions[i] = (int) (index % base);
+            index /= base;
+        }
+        // 2.  d ʾ d δռõĸӡ
+        int used = 0;
+        for (int i = 0; i < k; i++) {
+            int d = positions[i];
+            int p = 0;
+            while (true) {
+                if ((used & (1 << p)) == 0) {
+                    if (d == 0) break;
+                    d--;
+                }
+                p++;
+            }
+            positions[i] = p;
+            used |= 1 << p;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public int getK() {
+        return k;
+    }
+}
@@ -0,0 +1,154 @@
+package stud.g01.solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * PDB Ķļʽ ()
+ *   int   MAGIC
+ *   int   VERSION
+ *   int   size           ̱߳
+ *   int   storage        洢ʽ (Storage ţRANKED  COMPACT)
+ *   int   cost           ģ (Cost )
+ *   int   encoding        (Encoding )
+ *   int   k              ģʽƬ
+ *   int[k]               ģʽƬ ()
+ *   int[size*size]       Ŀ״̬ ()
+ *   long  tableLength    ֽ
+ *   long  checksum        CRC32
+ *   byte[tableLength]    
+ * ȡʱֱӰѾڴӳ (FileChannel.map)̿ɹͬһҳ档
+ * Уֻд˶һΣʱֻļͷ볤ȣÿűһ飬
+ * ļʱ -Dpdb.verify=true ڼʱҲ˶ű CRC32
+ */
+final class PdbFile {
+
+    static final int MAGIC = 0x50444246;   // "PDBF"
+    static final int VERSION = 4;
+
+    // ʱǷ˶žУ
+    static final boolean VERIFY = Boolean.getBoolean("pdb.verify");
+
+    private PdbFile() {
+    }
+
+    /**
+     * ģʽ洢ʽģ͡롢Ŀ̹ģļ
+     */
+    static Path path(Path dir, int size, PatternDatabase.Storage storage, PatternDatabase.Cost cost,
+                     PatternDatabase.Encoding encoding, int[] tiles, int[] goal) {
+        StringBuilder name = new StringBuilder("pdb-" + size + "x" + size + "-" + storage.name().toLowerCase()
+                + "-" + cost.name().toLowerCase() + "-" + encoding.name().toLowerCase());
+        for (int tile : tiles) {
+            name.append('-').append(tile);
+        }
+        name.append("-g").append(Integer.toHexString(Arrays.hashCode(goal)));
+        name.append(".v").append(VERSION).append(".pdb");
+        return dir.resolve(name.toString());
+    }
+
+    /**
+     * д PDB ļдʱļԭӵظ̶дһļ
+     * ǰʱļӳ˶һУͣһʱɾʱļ׳ IOException
+     */
+    static void write(Path file, int size, PatternDatabase.Storage storage, PatternDatabase.Cost cost,
+                      PatternDatabase.Encoding encoding, int[] tiles, int[] goal, ByteBuffer table) throws IOException {
+        long checksum = checksum(table);
+        ByteBuffer header = header(size, storage, cost, encoding, tiles, goal, table.remaining(), checksum);
+        int headerLength = header.remaining();
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(file.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer body = table.duplicate();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+            channel.force(true);
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ)) {
+            if (checksum(channel.map(FileChannel.MapMode.READ_ONLY, headerLength, table.remaining())) != checksum) {
+                throw new IOException("дУͲ");
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * ڴӳ PDB ļľ
+     * @return ֻӳ仺壻ļڣ汾洢ʽģ͡롢ģʽĿꡢһʱ null
+     *         VERIFY Ϊ true ʱУͲҲ null
+     */
+    static MappedByteBuffer map(Path file, int size, PatternDatabase.Storage storage, PatternDatabase.Cost cost,
+                                PatternDatabase.Encoding encoding, int[] tiles, int[] goal) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer expected = header(size, storage, cost, encoding, tiles, goal, 0, 0);
+            int headerLength = expected.remaining();
+            if (channel.size() < headerLength) {
+                return null;
+            }
+            ByteBuffer actual = ByteBuffer.allocate(headerLength);
+            while (actual.hasRemaining() && channel.read(actual) >= 0) {
+                // ļͷ
+            }
+            actual.flip();
+
+            //  tableLength  checksum ⣬ļͷֽͬ
+            int fixed = headerLength - 2 * Long.BYTES;
+            if (!actual.slice().limit(fixed).equals(expected.slice().limit(fixed))) {
+                return null;
+            }
+            long tableLength = actual.getLong(fixed);
+            long checksum = actual.getLong(fixed + Long.BYTES);
+            if (tableLength > Integer.MAX_VALUE || channel.size() != headerLength + tableLength) {
+                return null;
+            }
+
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, headerLength, tableLength);
+            if (VERIFY && checksum(table) != checksum) {
+                return null;
+            }
+            return table;
+        }
+    }
+
+    private static ByteBuffer header(int size, PatternDatabase.Storage storage, PatternDatabase.Cost cost,
+                                     PatternDatabase.Encoding encoding, int[] tiles, int[] goal, long tableLength,
+                                     long checksum) {
+        ByteBuffer header = ByteBuffer.allocate(7 * Integer.BYTES + (tiles.length + goal.length) * Integer.BYTES + 2 * Long.BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(storage.ordinal()).putInt(cost.ordinal())
+                .putInt(encoding.ordinal()).putInt(tiles.length);
+        for (int tile : tiles) {
+            header.putInt(tile);
+        }
+        for (int tile : goal) {
+            header.putInt(tile);
+        }
+        header.putLong(tableLength).putLong(checksum);
+        return header.flip();
+    }
+
+    static long checksum(ByteBuffer table) {
+        CRC32 crc = new CRC32();
+        crc.update(table.duplicate());
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,73 @@
+package stud.g01.solver;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * PDB 빹־
+ * ̨߳ ( builderThreads ) ϲϢȷУ߳ʼǰ
+ * ȴ PDB  flush ͳһ̵ (· draw) 
+ * ߳ϵϢ (׼ֱӹ PDB) 
+ */
+public final class PdbLog {
+
+    private static final Queue<Message> PENDING = new ConcurrentLinkedQueue<>();
+
+    private PdbLog() {
+    }
+
+    /**
+     * ̨ PDB ̹߳ػֹ̣߳˳
+     */
+    public static ThreadFactory builderThreads() {
+        return BuilderThread::new;
+    }
+
+    public static void info(String text) {
+        log(new Message(false, text));
+    }
+
+    public static void warn(String text) {
+        log(new Message(true, text));
+    }
+
+    /**
+     * ˳̨̻߳ѹϢ
+     */
+    public static void flush() {
+        Message message;
+        while ((message = PENDING.poll()) != null) {
+            message.print();
+        }
+    }
+
+    private static void log(Message message) {
+        if (Thread.currentThread() instanceof BuilderThread) {
+            PENDING.add(message);
+        } else {
+            message.print();
+        }
+    }
+
+    private static final class BuilderThread extends Thread {
+        BuilderThread(Runnable task) {
+            super(task, "pdb-builder");
+            setDaemon(true);
+        }
+    }
+
+    private static final class Message {
+        final boolean warning;
+        final String text;
+
+        Message(boolean warning, String text) {
+            this.warning = warning;
+            this.text = text;
+        }
+
+        void print() {
+            (warning ? System.err : System.out).println(text);
+        }
+    }
+}
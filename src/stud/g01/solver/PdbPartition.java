@@ -0,0 +1,92 @@
+package stud.g01.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 15-Puzzle  24-Puzzle Ĳཻģʽ (ƬŶӦ׼Ŀ״̬ 1..n*n-1, 0)
+ * ־ʹ ADDITIVE  COMPACT 洢ֵ֮ǿɲɵġ
+ * 4x4
+ *   5-5-5  зֵ 5 Ƭģʽ
+ *   6-6-3  롢Ұ 2x3 һ
+ *   7-8     7 Ƭ 8 Ƭ (8 ƬģʽҪԼ 2.6GB ڴ)
+ * 5x5
+ *   6-6-6-6   2x3 3x2 3x2 飬Լ½ǵ 6 Ƭ
+ *              ÿű 25!/19! Լ 1.27  (BYTE Լ 122MB)ʱ BFS ״̬ռԼ 24 ڣ
+ *              λͼԼ 1.2GB ڴ棬߳ÿűҪʮӣ󱣴Ϊ PDB ļ
+ *  -Dpdb.partition=5-5-5|6-6-3|7-8|6-6-6-6 ѡ߳Ļ֣Ĭ 4x4 Ϊ 5-5-55x5 Ϊ 6-6-6-6
+ */
+public enum PdbPartition {
+    P555("5-5-5", 4, new int[][]{{1, 2, 3, 4, 5}, {6, 7, 8, 9, 10}, {11, 12, 13, 14, 15}}),
+    P663("6-6-3", 4, new int[][]{{1, 2, 5, 6, 9, 10}, {3, 4, 7, 8, 11, 12}, {13, 14, 15}}),
+    P78("7-8", 4, new int[][]{{9, 10, 11, 12, 13, 14, 15}, {1, 2, 3, 4, 5, 6, 7, 8}}),
+    P6666("6-6-6-6", 5, new int[][]{{1, 2, 3, 6, 7, 8}, {4, 5, 9, 10, 14, 15}, {11, 12, 16, 17, 21, 22},
+            {13, 18, 19, 20, 23, 24}});
+
+    // ̱߳
+    public static final int MAX_BOARD_SIZE = 5;
+
+    private final String label;
+    private final int boardSize;
+    private final List<Set<Integer>> patterns;
+
+    /**
+     * @param patterns ÿһһģʽƬ
+     */
+    PdbPartition(String label, int boardSize, int[][] patterns) {
+        this.label = label;
+        this.boardSize = boardSize;
+        List<Set<Integer>> sets = new ArrayList<>();
+        for (int[] tiles : patterns) {
+            Set<Integer> pattern = new HashSet<>();
+            for (int tile : tiles) {
+                pattern.add(tile);
+            }
+            sets.add(Collections.unmodifiableSet(pattern));
+        }
+        this.patterns = Collections.unmodifiableList(sets);
+    }
+
+    /**
+     *  ( "6-6-3") ҵӦĻ
+     */
+    public static PdbPartition of(String label) {
+        for (PdbPartition partition : values()) {
+            if (partition.label.equals(label)) {
+                return partition;
+            }
+        }
+        throw new IllegalArgumentException("δ֪ PDB : " + label);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return Ե̱߳
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public PatternDatabase.Storage getStorage() {
+        return PatternDatabase.Storage.COMPACT;
+    }
+
+    public PatternDatabase.Cost getCost() {
+        return PatternDatabase.Cost.ADDITIVE;
+    }
+
+    public List<Set<Integer>> getPatterns() {
+        return patterns;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
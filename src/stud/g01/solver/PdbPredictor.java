@@ -0,0 +1,214 @@
+package stud.g01.solver;
+
+import core.problem.State;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+/**
+ * DISJOINT_PATTERN Ԥһƶֻı䱻ƶƬһģʽģʽֵɸ
+ * ģʽֵԤ RecentStates жϣ㲻ʱΪһ
+ * õıڹֵ (ûи) ʱȷڼ䲻䡣PDB ļѴʱڴͬӳ䣬
+ * һʹ PDBֻȱļҪ BFS ʱڼ俪ʼʹپ룺
+ * ;ں̨ PDB ֵһһʼʹ
+ */
+final class PdbPredictor implements IncrementalPredictor {
+    private final RecentStates<PdbParts> recent = new RecentStates<>();
+    private final boolean dual;   // Ƿżѯ (ֻ IDA* ʹ)Ϊ false ʱ pathmax
+    private volatile Snapshot snapshot;
+
+    PdbPredictor(boolean dual) {
+        this.dual = dual;
+    }
+
+    /**
+     * һõĿͼ (δʱΪ null)
+     */
+    private static final class Snapshot {
+        final PdbRegistry.GoalView view;
+        final PatternDatabase[] tables;
+
+        Snapshot(PdbRegistry.GoalView view) {
+            this.view = view;
+            this.tables = view.set.tables;
+        }
+    }
+
+    /**
+     * ģʽԭ״̬뷴״̬ϵֵԼõƬλ
+     * ƬӶӳ䵽淶Ŀϣowner ΪʱõĿͼֻĿıɵֵЧ
+     */
+    private static final class PdbParts {
+        final PdbRegistry.GoalView owner;
+        final int[] cells;           // cells[tile]Ƭڵĸ
+        final int[] parts;           // parts[i] i ģʽֵ
+        final int[] reflectedCells;  // ״̬ƬڵĸӣѯʱΪ null
+        final int[] reflectedParts;
+
+        PdbParts(PdbRegistry.GoalView owner, int[] cells, int[] parts, int[] reflectedCells, int[] reflectedParts) {
+            this.owner = owner;
+            this.cells = cells;
+            this.parts = parts;
+            this.reflectedCells = reflectedCells;
+            this.reflectedParts = reflectedParts;
+        }
+    }
+
+    @Override
+    public int heuristics(State state, State goal) {
+        return heuristics(state, goal, null, -1);
+    }
+
+    @Override
+    public int heuristics(State state, State goal, State parent, int parentH) {
+        PuzzleBoard goalBoard = (PuzzleBoard) goal;
+        Snapshot frozen = snapshot;
+        if (parent == null || frozen == null || frozen.view.goal != goalBoard) {
+            // µ̨ѹ־ȡǰͼ
+            PdbLog.flush();
+            frozen = new Snapshot(PdbRegistry.viewFor(goalBoard));
+            snapshot = frozen;
+        }
+        PdbRegistry.GoalView view = frozen.view;
+        PatternDatabase[] current = frozen.tables;
+
+        PuzzleBoard b = (PuzzleBoard) state;
+        if (current == null || b.getSize() != goalBoard.getSize()) {
+            return HeuristicContext.of(goalBoard).manhattan(b);
+        }
+        // ͬһͼ tables ֻ null Ϊıowner ͬ˵ֵͬһ
+        PuzzleBoard parentBoard = (PuzzleBoard) parent;
+        PdbParts parentParts = null;
+        if (parentBoard != null) {
+            parentParts = recent.get(parentBoard);
+            if (parentParts == null || parentParts.owner != view) {
+                parentParts = pdbParts(parentBoard, view, current, null, null);
+                recent.put(parentBoard, parentParts);
+            }
+        }
+        PdbParts parts = pdbParts(b, view, current, parentBoard, parentParts);
+        recent.put(b, parts);
+        int h = pdbHeuristic(parts, current, dual);
+        if (!dual && parentH > 0) {
+            // pathmaxCOMPACT Ǹհ׸λϵСֵűֵһ֮ڿ½ֹ 1
+            // ȡ max(h,  h - 1) ʹ f ·ⲻʹһ£´ closed 
+            // A* ԿԷŵ g رս㣬DISJOINT_PATTERN ֻ֤ IDA* һʹʱõŽ
+            h = Math.max(h, parentH - 1);
+        }
+        return h;
+    }
+
+    /**
+     *  board ԭ״̬뷴״̬ϵĸģʽֵ
+     * Ⱦ view ӳ䵽淶Ŀϣ֮ļ㶼ڹ淶ĿϽ
+     * @param parentParts ĸģʽֵΪ null ʱȫ²ѯ
+     */
+    private static PdbParts pdbParts(PuzzleBoard board, PdbRegistry.GoalView view, PatternDatabase[] pdbs,
+                                     PuzzleBoard parent, PdbParts parentParts) {
+        PdbRegistry.PdbSet set = view.set;
+        int size = board.getSize();
+        int cellCount = size * size;
+        int blankCell = view.cellMap[board.getBlankRow() * size + board.getBlankCol()];
+        int[] cells;
+        int[] parts;
+        int[] moved = null;   // ƶƬԭڵĸ (Ŀհ׸)
+        if (parentParts == null) {
+            cells = new int[cellCount];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    cells[view.relabel[board.getTile(i, j)]] = view.cellMap[i * size + j];
+                }
+            }
+            parts = new int[pdbs.length];
+            for (int i = 0; i < pdbs.length; i++) {
+                parts[i] = pdbs[i].getHeuristic(cells);
+            }
+        } else {
+            int from = view.cellMap[parent.getBlankRow() * size + parent.getBlankCol()];
+            int tile = view.relabel[board.getTile(parent.getBlankRow(), parent.getBlankCol())];
+            moved = new int[]{tile, from};
+            cells = parentParts.cells.clone();
+            cells[tile] = from;
+            cells[0] = blankCell;
+            parts = parentParts.parts.clone();
+            int p = set.patternOf[tile];
+            if (p >= 0) {
+                parts[p] = pdbs[p].getHeuristic(cells);
+            }
+        }
+        int[] reflectedCells = null;
+        int[] reflectedParts = null;
+        int[] reflect = set.reflectTiles;
+        if (PdbRegistry.symmetryLookups() && !set.exact && reflect != null) {
+            if (moved != null && parentParts.reflectedCells != null) {
+                // ״ֻ̬ͬƶһƬ
+                int tile = reflect[moved[0]];
+                reflectedCells = parentParts.reflectedCells.clone();
+                reflectedCells[tile] = transpose(moved[1], size);
+                reflectedCells[0] = transpose(blankCell, size);
+                reflectedParts = parentParts.reflectedParts.clone();
+                int p = set.patternOf[tile];
+                if (p >= 0) {
+                    reflectedParts[p] = pdbs[p].getHeuristic(reflectedCells);
+                }
+            } else {
+                reflectedCells = new int[cellCount];
+                for (int tile = 0; tile < cellCount; tile++) {
+                    reflectedCells[reflect[tile]] = transpose(cells[tile], size);
+                }
+                reflectedParts = new int[pdbs.length];
+                for (int i = 0; i < pdbs.length; i++) {
+                    reflectedParts[i] = pdbs[i].getHeuristic(reflectedCells);
+                }
+            }
+        }
+        return new PdbParts(view, cells, parts, reflectedCells, reflectedParts);
+    }
+
+    /**
+     * ཻģʽֵ֮뷴״̬ϵĺȡֵdual Ϊ true ʱհ׸Ŀλٲѯż״̬
+     * ֻڲ״̬ϲѯĶżֵʹ״̬ (Կɲ)ֻ IDA* ʹ
+     */
+    private static int pdbHeuristic(PdbParts pdbParts, PatternDatabase[] pdbs, boolean dual) {
+        PdbRegistry.PdbSet set = pdbParts.owner.set;
+        int cellCount = set.goalTiles.length;
+        int[] cells = pdbParts.cells;
+        int h = sum(pdbParts.parts);
+        int source = 0;
+        if (pdbParts.reflectedParts != null) {
+            int hr = sum(pdbParts.reflectedParts);
+            if (hr > h) {
+                h = hr;
+                source = 1;
+            }
+        }
+        if (dual && PdbRegistry.symmetryLookups() && !set.exact && cells[0] == set.homeCells[0]) {
+            // ż״̬ m ϷŵǡĿ m ƬǰڸӡĿ״̬еƬ
+            int[] dualCells = new int[cellCount];
+            for (int m = 0; m < cellCount; m++) {
+                dualCells[set.goalTiles[cells[set.goalTiles[m]]]] = m;
+            }
+            int hd = 0;
+            for (PatternDatabase pdb : pdbs) {
+                hd += pdb.getHeuristic(dualCells);
+            }
+            if (hd > h) {
+                h = hd;
+                source = 2;
+            }
+        }
+        PdbRegistry.recordSourceWin(source);
+        return h;
+    }
+
+    private static int transpose(int cell, int size) {
+        return (cell % size) * size + cell / size;
+    }
+
+    private static int sum(int[] parts) {
+        int total = 0;
+        for (int part : parts) {
+            total += part;
+        }
+        return total;
+    }
+}
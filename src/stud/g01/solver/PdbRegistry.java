@@ -0,0 +1,391 @@
+package stud.g01.solver;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DISJOINT_PATTERN  PDB ĵǼǴ߳Ļ֡淶Ŀ PDB ̨Ŀ굽淶Ŀӳ䣬
+ * ԼԳƲѯĿͳơPdbPredictor  MutableBoard ͨ viewFor ȡĿ PDB
+ */
+public final class PdbRegistry {
+
+    // 淶Ŀ PDBں̨ǰ DISJOINT_PATTERN پ
+    private static final Map<PuzzleBoard, PdbSet> PDB_SETS = new ConcurrentHashMap<>();
+    private static volatile PdbSet lastRequested;
+    // Ŀ굽淶Ŀӳ ( GoalView)Ŀ겻ͬ⹲ù淶Ŀ PDB
+    private static final Map<PuzzleBoard, GoalView> GOAL_VIEWS = new ConcurrentHashMap<>();
+    private static volatile GoalView lastView;
+    // ߳Ĳཻģʽ֣partitions[size] Ϊ null ʾñ߳ûл֣
+    //  -Dpdb.partition=5-5-5|6-6-3|7-8|6-6-6-6 ָ߳Ļ֣߳ʹ PdbPartition иñ߳ĵһ
+    private static final AtomicReferenceArray<PdbPartition> partitions = initialPartitions();
+    // ̨ PDB ߳ (ػֹ̣߳˳־ PdbLog Ӻʼǰ)
+    private static final ExecutorService PDB_BUILDERS = Executors.newCachedThreadPool(PdbLog.builderThreads());
+    // PDB ļĿ¼ -Dpdb.dir=... ָ
+    private static final Path PDB_DIR = Paths.get(System.getProperty("pdb.dir", "pdb"));
+    // ı룬 -Dpdb.encoding=BYTE|NIBBLE ָ (־Ϊ COMPACT 洢)
+    private static final PatternDatabase.Encoding PDB_ENCODING =
+            PatternDatabase.Encoding.valueOf(System.getProperty("pdb.encoding", "BYTE"));
+
+    // --- ԳƲѯ (Խ߷ż״̬) ---
+    // Ƿͬʱѯ״̬ż״̬ȡֵ -Dpdb.symmetry=false ر
+    private static volatile boolean symmetryLookups = Boolean.parseBoolean(System.getProperty("pdb.symmetry", "true"));
+    // 3x3 ʱǷ񹹽 8-Puzzle  (181440 ɴ״̬) -Dpdb.exact8=false رգرʱʹپ
+    private static final boolean EXACT_8_PUZZLE = Boolean.parseBoolean(System.getProperty("pdb.exact8", "true"));
+    // ǷͳƸԴṩֵĴ ( pdbSourceWins) -Dpdb.stats=true 򿪣ĬϹرգֵʱд
+    private static final boolean PDB_STATS = Boolean.getBoolean("pdb.stats");
+    // ԴṩֵĴ0 ԭ״̬1 ״̬2 ż״̬
+    private static final LongAdder[] PDB_SOURCE_WINS = {new LongAdder(), new LongAdder(), new LongAdder()};
+
+    private PdbRegistry() {
+    }
+
+    private static AtomicReferenceArray<PdbPartition> initialPartitions() {
+        AtomicReferenceArray<PdbPartition> initial = new AtomicReferenceArray<>(PdbPartition.MAX_BOARD_SIZE + 1);
+        String label = System.getProperty("pdb.partition");
+        if (label != null) {
+            PdbPartition chosen = PdbPartition.of(label);
+            initial.set(chosen.getBoardSize(), chosen);
+        }
+        for (PdbPartition candidate : PdbPartition.values()) {
+            initial.compareAndSet(candidate.getBoardSize(), null, candidate);
+        }
+        return initial;
+    }
+
+    /**
+     * л߳ ( PdbPartition.getBoardSize) Ĳཻģʽ֣´ñֵ߳ʱ»ּ/ PDB
+     */
+    public static synchronized void setPartition(PdbPartition newPartition) {
+        partitions.set(newPartition.getBoardSize(), newPartition);
+    }
+
+    /**
+     * @return 4x4 ̵ǰʹõĻ
+     */
+    public static PdbPartition getPartition() {
+        return getPartition(4);
+    }
+
+    /**
+     * @return ߳Ϊ size ̵ǰʹõĻ֣ûлʱΪ null
+     */
+    public static PdbPartition getPartition(int size) {
+        return size < partitions.length() ? partitions.get(size) : null;
+    }
+
+    /**
+     * /ر DISJOINT_PATTERN ķżѯ
+     */
+    public static synchronized void setSymmetryLookups(boolean enabled) {
+        symmetryLookups = enabled;
+    }
+
+    static boolean symmetryLookups() {
+        return symmetryLookups;
+    }
+
+    /**
+     * @return ԴṩֵĴ {ԭ״̬, ״̬, ż״̬}ͬʱ뿿ǰԴ
+     *         ֻ -Dpdb.stats=true ʱͳƣȫΪ 0
+     */
+    public static long[] pdbSourceWins() {
+        long[] wins = new long[PDB_SOURCE_WINS.length];
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] = PDB_SOURCE_WINS[i].sum();
+        }
+        return wins;
+    }
+
+    public static void resetPdbSourceWins() {
+        for (LongAdder wins : PDB_SOURCE_WINS) {
+            wins.reset();
+        }
+    }
+
+    /**
+     * һֵԴ (0 ԭ״̬1 ״̬2 ż״̬)δ -Dpdb.stats ʱκ
+     */
+    static void recordSourceWin(int source) {
+        if (PDB_STATS) {
+            PDB_SOURCE_WINS[source].increment();
+        }
+    }
+
+    /**
+     * ȡĿ goal ͼ淶Ŀϵ PDB Լӳ䵽淶Ŀı任
+     * PDB δʱӳеļȱٵıں̨ʼȴ
+     */
+    static GoalView viewFor(PuzzleBoard goal) {
+        GoalView view = lastView;
+        PdbPartition partition = getPartition(goal.getSize());
+        if (view != null && view.goal == goal && view.set.partition == partition) {
+            return view;
+        }
+        view = GOAL_VIEWS.get(goal);
+        if (view != null && view.set.partition == partition) {
+            lastView = view;
+            return view;
+        }
+        return requestView(goal);
+    }
+
+    private static synchronized GoalView requestView(PuzzleBoard goal) {
+        GoalView view = GOAL_VIEWS.get(goal);
+        if (view == null || view.set.partition != getPartition(goal.getSize())) {
+            view = new GoalView(goal);
+            GOAL_VIEWS.put(goal, view);
+        }
+        lastView = view;
+        return view;
+    }
+
+    /**
+     * ȡù淶Ŀ canonical ڵǰµ PDBδʱӳļں̨ʼ
+     */
+    private static synchronized PdbSet requestPDBs(PuzzleBoard canonical) {
+        PdbPartition partition = getPartition(canonical.getSize());
+        PdbSet set = PDB_SETS.get(canonical);
+        if (set == null || set.partition != partition) {
+            set = new PdbSet(canonical, partition);
+            PDB_SETS.put(canonical, set);
+        }
+        lastRequested = set;
+        return set;
+    }
+
+    /**
+     * ȴһ PDB  (ڻ׼ԣʹʱܹӰ)
+     * @return PDB Ƿ
+     */
+    public static boolean awaitPDBs() {
+        PdbSet set = lastRequested;
+        boolean ready = set != null && set.await();
+        PdbLog.flush();
+        return ready;
+    }
+
+    /**
+     * Ŀ goal  PDB ȴ乹
+     * @return PDB Ƿ (֧лֵ 4x45x5Լ pdb.exact8 ʱ 3x3)
+     */
+    public static boolean awaitPDBs(PuzzleBoard goal) {
+        boolean ready = viewFor(goal).set.await();
+        PdbLog.flush();
+        return ready;
+    }
+
+    /**
+     * Ŀ굽淶Ŀӳ䣬ʹĿ겻ͬ⹲ͬһ PDB
+     *   1. ̵ 8 ԳƱ任 (ת/ת) ѡһĿĿհ׸Ƶбĸ
+     *      (ϵĿհ׸Ƶ½ǣ׼Ŀλ)
+     *   2. 任Ŀ±Ƭ c ϵƬΪ淶Ŀ c ϵƬ
+     * 淶ĿΪڿհ׸ĸϰη 1, 2, ... ̣հ׸ıűΪ 0
+     * ״̬ͬı任󵽹淶Ŀľԭ goal ľͬ˿ֱӲ淶Ŀ PDB
+     * 4x4 Ŀհ׸нǡߡֹҪ PDB
+     */
+    static final class GoalView {
+        final PuzzleBoard goal;
+        final PdbSet set;
+        final int[] cellMap;   // cellMap[cell]ԭ̵ĸڹ淶ϵĸ
+        final int[] relabel;   // relabel[tile]ԭƬڹ淶Ŀеı
+
+        GoalView(PuzzleBoard goal) {
+            this.goal = goal;
+            int n = goal.getSize();
+            int blank = goal.getBlankRow() * n + goal.getBlankCol();
+            int[] best = null;
+            for (int t = 0; t < 8; t++) {
+                int[] map = symmetry(t, n);
+                if (best == null || map[blank] > best[blank]) {
+                    best = map;
+                }
+            }
+            cellMap = best;
+            int canonicalBlank = cellMap[blank];
+
+            int[][] canonical = new int[n][n];
+            int next = 1;
+            for (int cell = 0; cell < n * n; cell++) {
+                if (cell != canonicalBlank) {
+                    canonical[cell / n][cell % n] = next++;
+                }
+            }
+            relabel = new int[n * n];
+            for (int cell = 0; cell < n * n; cell++) {
+                int image = cellMap[cell];
+                relabel[goal.getTile(cell / n, cell % n)] = canonical[image / n][image % n];
+            }
+            set = requestPDBs(new PuzzleBoard(n, canonical));
+        }
+
+        /**
+         *  t ԳƱ任 (t = 0..7) ¸ӵ
+         */
+        private static int[] symmetry(int t, int n) {
+            int[] map = new int[n * n];
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) {
+                    int row = r, col = c;
+                    if ((t & 4) != 0) {         // Խ߷
+                        row = c;
+                        col = r;
+                    }
+                    for (int k = 0; k < (t & 3); k++) {  // ˳ʱת 90 
+                        int rotated = col;
+                        col = n - 1 - row;
+                        row = rotated;
+                    }
+                    map[r * n + c] = row * n + col;
+                }
+            }
+            return map;
+        }
+    }
+
+    /**
+     * ĳһ淶Ŀ뻮µһ PDBԼԳƲѯĿϢ
+     * ļıڴʱͬӳ䣻ȱļı PDB_BUILDERS ϲȫһд tables
+     * ǰ tables Ϊ nullʼʱ tables Ϊ null  ( BFS )ʹپ
+     * 3x3 ʱֻһȫƬΪģʽı 8-Puzzle ľȷ (partition )
+     * ߳ partition partition Ϊ null (ñ߳ûл) ʱû PDB
+     */
+    static final class PdbSet {
+        final PuzzleBoard goal;
+        final PdbPartition partition;
+        final boolean exact;       // Ǿȷ룬ԳƲѯ
+        final int[] goalTiles;     // goalTiles[cell]Ŀ״̬и cell () ϵƬ
+        final int[] homeCells;     // homeCells[tile]ƬĿ״̬еĸ
+        final int[] reflectTiles;  // Խ߷Ƭ±ţĿհ׸ڶԽʱΪ null
+        final int[] patternOf;     // patternOf[tile]Ƭģʽ tables е±꣬հ׸Ϊ -1
+        final CompletableFuture<PatternDatabase[]> ready;
+        volatile PatternDatabase[] tables;
+
+        /**
+         * ԤȼԳƲѯĿϢӳе PDB ļʼ̨ı
+         * Խ߷̵ĶԳƱ任ƬĿ״̬±źֻҪĿհ׸ڶԽϣ
+         * ״̬Ŀľԭ״̬ͬ
+         */
+        PdbSet(PuzzleBoard goal, PdbPartition partition) {
+            this.goal = goal;
+            this.partition = partition;
+            int size = goal.getSize();
+            goalTiles = new int[size * size];
+            homeCells = new int[size * size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    goalTiles[i * size + j] = goal.getTile(i, j);
+                    homeCells[goal.getTile(i, j)] = i * size + j;
+                }
+            }
+            if (goal.getBlankRow() == goal.getBlankCol()) {
+                reflectTiles = new int[size * size];
+                for (int tile = 0; tile < size * size; tile++) {
+                    int home = homeCells[tile];
+                    reflectTiles[tile] = goal.getTile(home % size, home / size);
+                }
+            } else {
+                reflectTiles = null;
+            }
+
+            exact = size == 3 && EXACT_8_PUZZLE;
+            if (partition == null && !exact) {
+                // PDB Ϊлֵı߳ 8-Puzzle 
+                patternOf = null;
+                ready = CompletableFuture.completedFuture(null);
+                return;
+            }
+            List<Set<Integer>> patterns;
+            PatternDatabase.Storage storage;
+            PatternDatabase.Cost cost;
+            PatternDatabase.Encoding encoding;
+            String name;
+            if (exact) {
+                // ȫƬΪģʽհ׸ÿΪ 1״̬̱мΪȷ
+                Set<Integer> all = new HashSet<>();
+                for (int tile = 1; tile < size * size; tile++) {
+                    all.add(tile);
+                }
+                patterns = List.of(all);
+                storage = PatternDatabase.Storage.RANKED;
+                cost = PatternDatabase.Cost.UNIT;
+                encoding = PatternDatabase.Encoding.BYTE;
+                name = "8-Puzzle ";
+            } else {
+                patterns = partition.getPatterns();
+                storage = partition.getStorage();
+                cost = partition.getCost();
+                encoding = PDB_ENCODING;
+                name = partition + " ģʽݿ";
+            }
+            patternOf = new int[size * size];
+            Arrays.fill(patternOf, -1);
+            for (int i = 0; i < patterns.size(); i++) {
+                for (int tile : patterns.get(i)) {
+                    patternOf[tile] = i;
+                }
+            }
+
+            // ļıֱڵǰ߳ӳ (ֻ뼶ʱ)ȫӳɹʱһʹ PDB
+            // ֻҪ BFS ıŷŵ̨ڼ俪ʼʹپ
+            PatternDatabase[] loaded = new PatternDatabase[patterns.size()];
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < loaded.length; i++) {
+                loaded[i] = PatternDatabase.load(patterns.get(i), goal, storage, cost, encoding, PDB_DIR);
+                if (loaded[i] == null) {
+                    missing.add(i);
+                }
+            }
+            if (missing.isEmpty()) {
+                tables = loaded;
+                ready = CompletableFuture.completedFuture(loaded);
+                return;
+            }
+
+            PdbLog.info("ں̨ " + name + " (Ŀ¼ " + PDB_DIR + ")ǰʼʹپ...");
+            long startTime = System.currentTimeMillis();
+            List<CompletableFuture<PatternDatabase>> builds = new ArrayList<>();
+            for (int i : missing) {
+                Set<Integer> pattern = patterns.get(i);
+                builds.add(CompletableFuture.supplyAsync(() -> PatternDatabase.buildAndSave(pattern, goal,
+                        storage, cost, encoding, PDB_DIR), PDB_BUILDERS));
+            }
+            ready = CompletableFuture.allOf(builds.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+                PatternDatabase[] built = loaded.clone();
+                for (int k = 0; k < missing.size(); k++) {
+                    built[missing.get(k)] = builds.get(k).join();
+                }
+                tables = built;
+                long duration = System.currentTimeMillis() - startTime;
+                PdbLog.info(name + " (ʱ " + duration + " )֮ʼʹø PDB");
+                return built;
+            });
+            ready.exceptionally(e -> {
+                PdbLog.warn("ģʽݿ⹹ʧܣʹپ: " + e.getCause());
+                return null;
+            });
+        }
+
+        boolean await() {
+            try {
+                return ready.join() != null;
+            } catch (CompletionException e) {
+                return false;
+            }
+        }
+    }
+}
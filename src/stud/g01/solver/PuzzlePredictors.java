@@ -0,0 +1,169 @@
+package stud.g01.solver;
+
+import core.problem.State;
+import core.solver.algorithm.heuristic.HeuristicType;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import core.solver.algorithm.heuristic.Predictor;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+/**
+ * N-Puzzle ʽԤ
+ * Ŀ״ιֵʱȷԤʱ󶨸Ŀʽ (HeuristicContext)ֻ֮ȽĿã
+ * иֵʱһֵ
+ */
+public final class PuzzlePredictors {
+
+    private PuzzlePredictors() {
+    }
+
+    /**
+     * ͷضӦʽ
+     * MANHATTANMANHATTAN_PLUS_LINEAR_CONFLICTS һµģڲ´ closed  A*
+     * DISJOINT_PATTERN ֻ֤ɲɣCOMPACT Կհ׸λȡСֵ״ֵ̬ֹ 1
+     * һ£A* Էŵ g رս㣬ֻӦ IDA* һʹ (pathmax ֻʹ f ·ܱ֤)
+     */
+    public static Predictor predictor(HeuristicType type) {
+        return predictor(type, null);
+    }
+
+    /**
+     * ԤȰĿ goal ʽĵԤ
+     * @param goal Ŀ״̬Ϊ null ʱ״ιֵʱ
+     */
+    public static Predictor predictor(HeuristicType type, PuzzleBoard goal) {
+        return predictor(type, goal, false);
+    }
+
+    /**
+     * ֻ IDA* ʹõԤIDA* ֻҪɲɣDISJOINT_PATTERN ˿ټ϶żѯ
+     *  predictor(type) ͬ
+     */
+    public static Predictor idaPredictor(HeuristicType type) {
+        return predictor(type, null, true);
+    }
+
+    private static Predictor predictor(HeuristicType type, PuzzleBoard goal, boolean admissibleOnly) {
+        HeuristicContext context = goal == null ? null : HeuristicContext.of(goal);
+        switch (type) {
+            case MISPLACED:
+                return (state, g) -> ((PuzzleBoard) state).misplaced((PuzzleBoard) g);
+            case MANHATTAN:
+                return new ManhattanPredictor(context);
+            case MANHATTAN_PLUS_LINEAR_CONFLICTS:
+                return new LinearConflictPredictor(context);
+
+            case DISJOINT_PATTERN:
+                return new PdbPredictor(admissibleOnly);
+
+            case WALKING_DISTANCE:
+                return new WalkingDistancePredictor(context);
+
+            default:
+                return (state, g) -> 0;
+        }
+    }
+
+    /**
+     * ʽĵԤĿĵĿͬһʱֱʹã
+     * ĿȡĲΪ (Ĳɱ䣬̹߳ͬһԤҲǰȫ)
+     */
+    private abstract static class ContextPredictor implements IncrementalPredictor {
+        private volatile HeuristicContext context;
+
+        ContextPredictor(HeuristicContext context) {
+            this.context = context;
+        }
+
+        final HeuristicContext context(State goal) {
+            HeuristicContext bound = context;
+            if (bound == null || bound.getGoal() != goal) {
+                bound = HeuristicContext.of((PuzzleBoard) goal);
+                context = bound;
+            }
+            return bound;
+        }
+
+        @Override
+        public int heuristics(State state, State goal) {
+            return heuristics(state, goal, null, -1);
+        }
+    }
+
+    /**
+     * MANHATTAN ԤиֵʱֻƶƬO(1) õӽֵ
+     */
+    private static final class ManhattanPredictor extends ContextPredictor {
+        ManhattanPredictor(HeuristicContext context) {
+            super(context);
+        }
+
+        @Override
+        public int heuristics(State state, State goal, State parent, int parentH) {
+            PuzzleBoard b = (PuzzleBoard) state;
+            ManhattanTable table = context(goal).manhattan;
+            if (parent == null || parentH < 0) {
+                return table.manhattan(b);
+            }
+            return table.manhattan(b, (PuzzleBoard) parent, parentH);
+        }
+    }
+
+    /**
+     * MANHATTAN_PLUS_LINEAR_CONFLICTS Ԥиֵʱֻ¼ܱӰ
+     */
+    private static final class LinearConflictPredictor extends ContextPredictor {
+        LinearConflictPredictor(HeuristicContext context) {
+            super(context);
+        }
+
+        @Override
+        public int heuristics(State state, State goal, State parent, int parentH) {
+            PuzzleBoard b = (PuzzleBoard) state;
+            ManhattanTable table = context(goal).manhattan;
+            if (parent == null || parentH < 0) {
+                return table.manhattan(b) + table.linearConflicts(b);
+            }
+            return table.manhattanPlusConflicts(b, (PuzzleBoard) parent, parentH);
+        }
+    }
+
+    /**
+     * WALKING_DISTANCE ԤĲ±֪ʱ O(1) õӽֵ
+     * Ĳ±Ԥ RecentStates жϣ㲻ʱΪһ
+     */
+    private static final class WalkingDistancePredictor extends ContextPredictor {
+        private final RecentStates<WalkingGoal.Index> recent = new RecentStates<>();
+
+        WalkingDistancePredictor(HeuristicContext context) {
+            super(context);
+        }
+
+        @Override
+        public int heuristics(State state, State goal, State parent, int parentH) {
+            PuzzleBoard b = (PuzzleBoard) state;
+            HeuristicContext context = context(goal);
+            WalkingGoal walking = context.walking;
+            if (walking == null) {
+                return context.manhattan.manhattan(b);
+            }
+            PuzzleBoard parentBoard = (PuzzleBoard) parent;
+            WalkingGoal.Index parentIndex = null;
+            if (parentBoard != null) {
+                parentIndex = recent.get(parentBoard);
+                if (parentIndex == null || parentIndex.owner != walking) {
+                    parentIndex = walking.index(parentBoard);
+                    if (parentIndex != null) {
+                        recent.put(parentBoard, parentIndex);
+                    }
+                }
+            }
+            WalkingGoal.Index index = parentIndex != null
+                    ? walking.index(b, parentBoard, parentIndex) : walking.index(b);
+            if (index == null) {
+                return context.manhattan.manhattan(b);
+            }
+            recent.put(b, index);
+            return index.distance();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package stud.g01.solver;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+/**
+ * ̵ֵϢ (ģʽֵ)ӽֵ
+ *  Zobrist ϣֱӳ䣬ͻʱǾĿñȽ̣ͬΪδС
+ * ̶ A*  open һռڴ档
+ * Ŀ޸ģĿ߳дĿർһδУ̹߳ǰȫ
+ */
+final class RecentStates<T> {
+    private static final int CAPACITY = 1 << 10;
+
+    private static final class Entry<T> {
+        final PuzzleBoard state;
+        final T value;
+
+        Entry(PuzzleBoard state, T value) {
+            this.state = state;
+            this.value = value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Entry<T>[] entries = (Entry<T>[]) new Entry<?>[CAPACITY];
+
+    private static int slot(PuzzleBoard state) {
+        return Long.hashCode(state.zobristKey()) & (CAPACITY - 1);
+    }
+
+    /**
+     * @return state ϢʱΪ null
+     */
+    T get(PuzzleBoard state) {
+        Entry<T> entry = entries[slot(state)];
+        return entry != null && entry.state == state ? entry.value : null;
+    }
+
+    void put(PuzzleBoard state, T value) {
+        entries[slot(state)] = new Entry<>(state, value);
+    }
+}
@@ -0,0 +1,166 @@
+package stud.g01.solver;
+
+import core.problem.Problem;
+import core.solver.algorithm.heuristic.HeuristicType;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * ûԭ IDA* (IDA*-TT)N-Puzzle רá
+ * ͨ IDA* ֻǵõǰ·ͬһ״̬һεھͬ·ڸε䶼ᱻչ
+ * ù̶С TranspositionTable ¼ÿ״̬ {ʱ g, ֵ, ʱĽ}
+ *   εѾԲڵǰ g  g  (ڵǰ·) ״ֱ̬Ӽ֦
+ *   бضϽС f ֵȥ g Ϊ״̬Ľֵ֮ĵʹá
+ * ֵеĿ·۵½ (ֹĻһ 1 + ֵ)ǿɲɵģⱣš
+ * ʱʣ滻ĿʧֻǿϢ˱ĴСֻӰظչĶ١
+ */
+public class TranspositionIdAStar extends AbstractSearcher {
+
+    private final HeuristicType type;
+    private final TranspositionTable table;
+
+    private MutableBoard board;
+    private int bound;
+    private int minNextBound;
+    private int[] path = new int[64];   // path[d] d+1 հ׸ڵĸ
+    private int solutionLength;
+
+    private long prunedByTable;     // εڵǰ·϶Ľ
+    private long prunedByBound;     // Ľֵ޶Ľ
+
+    /**
+     * @param frontier  (ڴ㷨δʹãΪ API Ա)
+     * @param type      ʽͣ MutableBoard.of
+     * @param megabytes ûڴ (MB)
+     */
+    public TranspositionIdAStar(Frontier frontier, HeuristicType type, int megabytes) {
+        super(frontier);
+        this.type = type;
+        this.table = new TranspositionTable(megabytes);
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        this.nodesGenerated = 1;
+        this.nodesExpanded = 0;
+        this.prunedByTable = 0;
+        this.prunedByBound = 0;
+        if (!problem.solvable()) {
+            return null;
+        }
+        PuzzleBoard start = (PuzzleBoard) problem.root().getState();
+        PuzzleBoard goal = (PuzzleBoard) problem.getGoal();
+        // ״̬ (淶) Ŀ꣬ʱ
+        table.clear();
+
+        bound = MutableBoard.of(start, goal, type).heuristic();
+        while (true) {
+            System.out.println("Searching with bound: " + bound + " (: " + this.nodesGenerated + " ڵ)");
+
+            board = MutableBoard.of(start, goal, type);
+            minNextBound = Integer.MAX_VALUE;
+            solutionLength = -1;
+            dfs(0, board.heuristic(), -1, 0);
+
+            if (solutionLength >= 0) {
+                report();
+                return generatePath(InPlaceIdAStar.replay(problem, board, Arrays.copyOf(path, solutionLength)));
+            }
+            if (minNextBound == Integer.MAX_VALUE) {
+                report();
+                return null;
+            }
+            bound = minNextBound;
+        }
+    }
+
+    private void report() {
+        System.out.println("û " + table.capacity() + " εظ֦ " + prunedByTable
+                + " 㣬Ľֵ֦ " + prunedByBound + " 㣬д " + table.stores()
+                + " Σ滻 " + table.replacements() + " ");
+    }
+
+    public long prunedByTable() {
+        return prunedByTable;
+    }
+
+    public long prunedByBound() {
+        return prunedByBound;
+    }
+
+    /**
+     * ǰ
+     * @param g        Ӹǰ״̬Ĳ
+     * @param h        ǰ״̬ (̬) ֵ
+     * @param previous һ֮ǰհ׸ڵĸӣΪ -1
+     * @param parentH  ֵ (ֹĻһ g + 1 + parentH ֵ)
+     * @return ӵǰ״̬Ŀһ· f ֵ½磻ҵĿʱ -1
+     */
+    private int dfs(int g, int h, int previous, int parentH) {
+        int f = g + h;
+        if (f > bound) {
+            minNextBound = Math.min(minNextBound, f);
+            return f;
+        }
+        if (board.isGoal()) {
+            solutionLength = g;
+            return -1;
+        }
+
+        long high = board.keyHigh();
+        long low = board.keyLow();
+        int slot = table.find(high, low);
+        if (slot >= 0) {
+            int stored = table.h(slot);
+            if (table.bound(slot) == bound && table.g(slot) <= g) {
+                // εѾԲڵǰ߾ڵǰ· ()
+                prunedByTable++;
+                if (g + stored > bound) {
+                    minNextBound = Math.min(minNextBound, g + stored);
+                }
+                return g + stored;
+            }
+            if (stored > h) {
+                h = stored;
+                if (g + h > bound) {
+                    prunedByBound++;
+                    minNextBound = Math.min(minNextBound, g + h);
+                    return g + h;
+                }
+            }
+        }
+        // ȵǼΪεٴʱΪ
+        table.store(high, low, g, h, bound);
+        this.nodesExpanded++;
+
+        if (g == path.length) {
+            path = Arrays.copyOf(path, path.length * 2);
+        }
+        int backedUp = previous >= 0 ? g + 1 + parentH : Integer.MAX_VALUE;
+        int blank = board.blank();
+        int count = board.moveCount();
+        for (int i = 0; i < count; i++) {
+            int target = board.target(i);
+            if (target == previous) {
+                continue;
+            }
+            this.nodesGenerated++;
+            int childH = board.apply(i);
+            path[g] = target;
+            int value = dfs(g + 1, childH, blank, h);
+            board.undo();
+            if (value < 0) {
+                return -1;
+            }
+            backedUp = Math.min(backedUp, value);
+        }
+
+        table.store(high, low, g, Math.max(h, backedUp - g), bound);
+        return backedUp;
+    }
+}
@@ -0,0 +1,127 @@
+package stud.g01.solver;
+
+import java.util.Arrays;
+
+/**
+ * IDA* û̶СĿѰַΪ long ɵľȷ״̬ ( MutableBoard.keyHigh/keyLow)
+ * ֵΪ {״̬һαʱ g ֵ, ݵõֵ, ʱ f }
+ * ֻɢλ PROBES λ״̬ռʱ滻ʣ ( - g) СĿ
+ * ĽĿ޽Сȱ滻
+ * ÿĿռ 24 ֽ (λλֵһ long)Ŀȡָڴ 2 ݡ
+ */
+public final class TranspositionTable {
+
+    public static final int DEFAULT_MEGABYTES = 64;
+    public static final int MAX_VALUE = 0xFFFF;    // gֵ޸ռ 16 λ
+
+    private static final int ENTRY_BYTES = 24;
+    private static final int PROBES = 4;
+    private static final long OCCUPIED = 1L << 48;
+
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] values;    // g | h << 16 | bound << 32 | OCCUPIED0 ʾղ
+    private final int shift;
+    private final int mask;
+
+    private long stores;
+    private long replacements;
+
+    /**
+     * @param megabytes ڴ (MB)
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("ûСΪ: " + megabytes + " MB");
+        }
+        long entries = Math.max((long) megabytes * 1024 * 1024 / ENTRY_BYTES, PROBES);
+        int bits = Math.min(63 - Long.numberOfLeadingZeros(entries), 30);
+        highs = new long[1 << bits];
+        lows = new long[1 << bits];
+        values = new long[1 << bits];
+        shift = 64 - bits;
+        mask = (1 << bits) - 1;
+    }
+
+    /**
+     * ձ (һʱãͬһĸε֮䱣)
+     */
+    public void clear() {
+        Arrays.fill(values, 0L);
+        stores = 0;
+        replacements = 0;
+    }
+
+    private int home(long high, long low) {
+        return (int) ((low * 0x9E3779B97F4A7C15L ^ high * 0xC2B2AE3D27D4EB4FL) >>> shift);
+    }
+
+    /**
+     * @return ״̬ڵĲλڱʱ -1
+     */
+    public int find(long high, long low) {
+        int slot = home(high, low);
+        for (int i = 0; i < PROBES; i++, slot = (slot + 1) & mask) {
+            if (values[slot] != 0 && lows[slot] == low && highs[slot] == high) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    public int g(int slot) {
+        return (int) (values[slot] & MAX_VALUE);
+    }
+
+    public int h(int slot) {
+        return (int) ((values[slot] >>> 16) & MAX_VALUE);
+    }
+
+    public int bound(int slot) {
+        return (int) ((values[slot] >>> 32) & MAX_VALUE);
+    }
+
+    /**
+     * ¼ (򸲸) һ״̬ MAX_VALUE ֵضΪ MAX_VALUE
+     */
+    public void store(long high, long low, int g, int h, int bound) {
+        long value = Math.min(g, MAX_VALUE) | (long) Math.min(h, MAX_VALUE) << 16
+                | (long) Math.min(bound, MAX_VALUE) << 32 | OCCUPIED;
+        int slot = home(high, low);
+        int victim = -1;
+        int victimDepth = Integer.MAX_VALUE;
+        for (int i = 0; i < PROBES; i++, slot = (slot + 1) & mask) {
+            if (values[slot] == 0 || (lows[slot] == low && highs[slot] == high)) {
+                victim = slot;
+                break;
+            }
+            int depth = bound(slot) - g(slot);
+            if (depth < victimDepth) {
+                victim = slot;
+                victimDepth = depth;
+            }
+        }
+        if (values[victim] != 0 && (lows[victim] != low || highs[victim] != high)) {
+            replacements++;
+        }
+        highs[victim] = high;
+        lows[victim] = low;
+        values[victim] = value;
+        stores++;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public long stores() {
+        return stores;
+    }
+
+    /**
+     * @return λռ滻״̬Ĵ
+     */
+    public long replacements() {
+        return replacements;
+    }
+}
@@ -0,0 +1,142 @@
+package stud.g01.solver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Walking Distance (WD) 
+ * ֻһ (Ϊ) counts[r][g] Ϊ r Ŀڵ g еƬټϿհ׸ڵУ
+ * Ϊһв֡ƶıв֣ƶеһƬհ׸ڵУհ׸֮С
+ * Ŀвֳ BFSõÿвҪٴƶ÷ WD
+ * зͬ (counts[c][g] Ϊ c Ŀڵ g еƬ) WD ֮ǿɲɵֵ
+ * ֻȡڱ߳Ŀհ׸ڵ ()4x4 ʱ 24964 ֡
+ * ⻹ԤȼתƱʱɸĲ± O(1) õӽĲ±ꡣ
+ */
+public final class WalkingDistanceTable {
+
+    public static final int MAX_SIZE = 4;   // ֱΪ longn*n ռ 3 λӿհ׸ڵ
+
+    private static final Map<Integer, WalkingDistanceTable> TABLES = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final Map<Long, Integer> indexOf = new HashMap<>();
+    private final byte[] distances;
+    private final int[] links;   // links[(index * 2 + dir) * size + g]հ׸ (dir=0)  (dir=1) һĿ g ƬĲ֣-1 Ϊ
+
+    /**
+     * ȡñ߳ sizeĿհ׸ڵ blankLine  () ı״ʹʱ
+     */
+    public static WalkingDistanceTable of(int size, int blankLine) {
+        if (size < 2 || size > MAX_SIZE || blankLine < 0 || blankLine >= size) {
+            throw new IllegalArgumentException("ֵ֧ Walking Distance : size=" + size + ", blankLine=" + blankLine);
+        }
+        return TABLES.computeIfAbsent(size * (MAX_SIZE + 1) + blankLine, key -> new WalkingDistanceTable(size, blankLine));
+    }
+
+    private WalkingDistanceTable(int size, int blankLine) {
+        this.size = size;
+        int[] counts = new int[size * size];
+        for (int line = 0; line < size; line++) {
+            counts[line * size + line] = line == blankLine ? size - 1 : size;
+        }
+
+        // BFSְֵ˳
+        long[] codes = new long[1024];
+        int[] depth = new int[1024];
+        int[] next = new int[1024 * 2 * size];
+        codes[0] = encode(counts, blankLine);
+        indexOf.put(codes[0], 0);
+        int count = 1;
+        for (int head = 0; head < count; head++) {
+            int blank = decode(codes[head], counts);
+            for (int dir = 0; dir < 2; dir++) {
+                int from = dir == 0 ? blank - 1 : blank + 1;
+                for (int g = 0; g < size; g++) {
+                    int link = -1;
+                    if (from >= 0 && from < size && counts[from * size + g] > 0) {
+                        counts[from * size + g]--;
+                        counts[blank * size + g]++;
+                        long code = encode(counts, from);
+                        counts[blank * size + g]--;
+                        counts[from * size + g]++;
+
+                        Integer known = indexOf.get(code);
+                        if (known == null) {
+                            if (count == codes.length) {
+                                codes = Arrays.copyOf(codes, count * 2);
+                                depth = Arrays.copyOf(depth, count * 2);
+                                next = Arrays.copyOf(next, count * 2 * 2 * size);
+                            }
+                            codes[count] = code;
+                            depth[count] = depth[head] + 1;
+                            indexOf.put(code, count);
+                            known = count++;
+                        }
+                        link = known;
+                    }
+                    next[(head * 2 + dir) * size + g] = link;
+                }
+            }
+        }
+
+        distances = new byte[count];
+        for (int i = 0; i < count; i++) {
+            distances[i] = (byte) depth[i];
+        }
+        links = Arrays.copyOf(next, count * 2 * size);
+    }
+
+    /**
+     * ֱ룺ռ 3 λ 3 λΪհ׸ڵ
+     */
+    private long encode(int[] counts, int blank) {
+        long code = 0;
+        for (int count : counts) {
+            code = (code << 3) | count;
+        }
+        return (code << 3) | blank;
+    }
+
+    /**
+     * 뵽 countsؿհ׸ڵ
+     */
+    private int decode(long code, int[] counts) {
+        int blank = (int) (code & 7);
+        for (int i = counts.length - 1; i >= 0; i--) {
+            code >>>= 3;
+            counts[i] = (int) (code & 7);
+        }
+        return blank;
+    }
+
+    /**
+     * @param counts в֣counts[r * size + g] Ϊ r Ŀڵ g еƬ
+     * @param blank  հ׸ڵ
+     * @return ±ꣻcounts Ŀ겻һ (ɴ) ʱ -1
+     */
+    public int index(int[] counts, int blank) {
+        return indexOf.getOrDefault(encode(counts, blank), -1);
+    }
+
+    public int distance(int index) {
+        return distances[index];
+    }
+
+    /**
+     * հ׸еһĿ g ƬĲ±
+     * @param up հ׸Ƿ (кСķ) ƶ
+     */
+    public int next(int index, boolean up, int g) {
+        return links[(index * 2 + (up ? 0 : 1)) * size + g];
+    }
+
+    public int size() {
+        return distances.length;
+    }
+
+    public int getBoardSize() {
+        return size;
+    }
+}
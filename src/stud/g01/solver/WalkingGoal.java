@@ -0,0 +1,83 @@
+package stud.g01.solver;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+/**
+ * ĳһĿ Walking Distance ѯϢСıԼƬĿС
+ */
+final class WalkingGoal {
+    final WalkingDistanceTable rows;
+    final WalkingDistanceTable cols;
+    final int[] goalRow;
+    final int[] goalCol;
+
+    WalkingGoal(PuzzleBoard goal) {
+        int n = goal.getSize();
+        rows = WalkingDistanceTable.of(n, goal.getBlankRow());
+        cols = WalkingDistanceTable.of(n, goal.getBlankCol());
+        goalRow = new int[n * n];
+        goalCol = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                goalRow[goal.getTile(i, j)] = i;
+                goalCol[goal.getTile(i, j)] = j;
+            }
+        }
+    }
+
+    /**
+     * һĳһĿµСв± ( WalkingDistanceTable)
+     */
+    static final class Index {
+        final WalkingGoal owner;
+        final int rows;
+        final int cols;
+
+        Index(WalkingGoal owner, int rows, int cols) {
+            this.owner = owner;
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        int distance() {
+            return owner.rows.distance(rows) + owner.cols.distance(cols);
+        }
+    }
+
+    /**
+     *  board Св±
+     * @return ֲڱʱΪ null
+     */
+    Index index(PuzzleBoard board) {
+        int size = board.getSize();
+        int[] rowCounts = new int[size * size];
+        int[] colCounts = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int tile = board.getTile(i, j);
+                if (tile != 0) {
+                    rowCounts[i * size + goalRow[tile]]++;
+                    colCounts[j * size + goalCol[tile]]++;
+                }
+            }
+        }
+        int rowIndex = rows.index(rowCounts, board.getBlankRow());
+        int colIndex = cols.index(colCounts, board.getBlankCol());
+        return rowIndex < 0 || colIndex < 0 ? null : new Index(this, rowIndex, colIndex);
+    }
+
+    /**
+     * ɸĲ±㣺ƶֻıв֣ƶֻıв֣תƱ
+     */
+    Index index(PuzzleBoard board, PuzzleBoard parent, Index parentIndex) {
+        int tile = board.getTile(parent.getBlankRow(), parent.getBlankCol());
+        int rowIndex = parentIndex.rows;
+        int colIndex = parentIndex.cols;
+        if (board.getBlankRow() != parent.getBlankRow()) {
+            rowIndex = rows.next(rowIndex, board.getBlankRow() < parent.getBlankRow(), goalRow[tile]);
+        } else {
+            colIndex = cols.next(colIndex, board.getBlankCol() < parent.getBlankCol(), goalCol[tile]);
+        }
+        return new Index(this, rowIndex, colIndex);
+    }
+}
@@ -2,22 +2,62 @@ package stud.problem.pathfinding;
 
 import core.problem.Action;
 
+import java.util.List;
+
 /**
  *
  * Ѱ·ƶNSEWĸ򣬻8
+ * ÿֻһɱʵͨof(direction)ȡãλɢֵڴʱá
  */
 public class Move extends Action {
 
+    //Direction˳еȫ
+    private static final Move[] MOVES = new Move[Direction.values().length];
+    static {
+        for (Direction d : Direction.values()) {
+            MOVES[d.ordinal()] = new Move(d);
+        }
+    }
+
+    /**
+     * µȫɱ䣬Ա״̬ã
+     */
+    public static final List<Move> FOUR_MOVES = List.of(of(Direction.N), of(Direction.E), of(Direction.S), of(Direction.W));
+    public static final List<Move> EIGHT_MOVES = List.of(MOVES);
+
     private final Direction direction;
+    private final int rowOffset;    //кŵ
+    private final int colOffset;    //кŵ
+    private final int cost;
 
-    public Move(Direction direction) {
+    private Move(Direction direction) {
         this.direction = direction;
+        int[] offsets = Direction.offset(direction);
+        this.colOffset = offsets[0];
+        this.rowOffset = offsets[1];
+        this.cost = Direction.cost(direction);
+    }
+
+    /**
+     * @param direction ƶ
+     * @return ÷ΨһMoveʵ
+     */
+    public static Move of(Direction direction) {
+        return MOVES[direction.ordinal()];
     }
 
     public Direction getDirection() {
         return direction;
     }
 
+    public int getRowOffset() {
+        return rowOffset;
+    }
+
+    public int getColOffset() {
+        return colOffset;
+    }
+
     @Override
     public void draw() {
         System.out.println(this);
@@ -25,7 +65,7 @@ public class Move extends Action {
 
     @Override
     public int stepCost() {
-        return Direction.cost(direction);
+        return cost;
     }
 
     @Override
@@ -44,4 +84,9 @@ public class Move extends Action {
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        return direction.hashCode();
+    }
 }
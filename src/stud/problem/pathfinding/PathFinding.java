@@ -54,9 +54,9 @@ public class PathFinding extends Problem {
 
     @Override
     public boolean applicable(State state, Action action) {
-        int[] offsets = Direction.offset(((Move)action).getDirection());
-        int row = ((Position)state).getRow() + offsets[1];
-        int col = ((Position)state).getCol() + offsets[0];
+        Move move = (Move) action;
+        int row = ((Position)state).getRow() + move.getRowOffset();
+        int col = ((Position)state).getCol() + move.getColOffset();
         return row > 0 && row <= size &&
                col > 0 && col <= size &&
                grids[row - 1][col - 1] != GridType.WALL;
@@ -5,8 +5,6 @@ import core.problem.State;
 import core.solver.algorithm.heuristic.HeuristicType;
 import core.solver.algorithm.heuristic.Predictor;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.EnumMap;
 
 import static core.solver.algorithm.heuristic.HeuristicType.*;
@@ -42,21 +40,16 @@ public class Position extends State {
     @Override
     public State next(Action action) {
         //当前Action所带来的位移量
-        Direction dir = ((Move)action).getDirection();
-        int[] offsets = Direction.offset(dir);
+        Move move = (Move) action;
 
         //生成新状态所在的点
-        int col = getCol() + offsets[0];
-        int row = getRow() + offsets[1];
-        return new Position(row, col);
+        return new Position(getRow() + move.getRowOffset(), getCol() + move.getColOffset());
     }
 
     @Override
     public Iterable<? extends Action> actions() {
-        Collection<Move> moves = new ArrayList<>();
-        for (Direction d : Direction.EIGHT_DIRECTIONS)
-            moves.add(new Move(d));
-        return moves;
+        //所有状态共用同一个不可变的动作列表
+        return Move.EIGHT_MOVES;
     }
 
     //枚举映射，存放不同类型的启发函数